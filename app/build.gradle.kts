@@ -51,6 +51,8 @@ dependencies {
     val roomVersion = "2.6.1"
     implementation("androidx.room:room-runtime:$roomVersion")
     annotationProcessor("androidx.room:room-compiler:$roomVersion")
+    implementation("androidx.lifecycle:lifecycle-livedata:2.6.2")
+    implementation("androidx.recyclerview:recyclerview:1.3.2")
     
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
@@ -0,0 +1,160 @@
+package com.example.roomshare;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.BalanceEntry;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.Roommate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares one {@link DatabaseHelper#getAllRoomBalances} call with a sequential
+ * {@link DatabaseHelper#calculateBalance} call per room on a file-backed WAL database.
+ * Timings are written to logcat under {@link #TAG}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AllRoomBalancesBenchmark {
+    private static final String TAG = "AllRoomBalancesBench";
+    private static final String DB_NAME = "all-rooms-benchmark.db";
+    private static final int ROOMS = 600;
+    private static final int ROOMMATES_PER_ROOM = 6;
+    private static final int RUNS = 5;
+
+    private Context context;
+    private AppDatabase database;
+    private DatabaseHelper helper;
+    private long[] roomIds;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        database = Room.databaseBuilder(context, AppDatabase.class, DB_NAME)
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .build();
+        helper = new DatabaseHelper(database);
+        roomIds = new long[ROOMS];
+        database.runInTransaction(this::seed);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        for (int r = 0; r < ROOMS; r++) {
+            long roomId = database.roomDao().insertRoom(new RoomEntity("Room " + r));
+            roomIds[r] = roomId;
+            long remaining = 0;
+            for (int m = 0; m < ROOMMATES_PER_ROOM; m++) {
+                long roommateId = database.roommateDao().insertRoommate(
+                        new Roommate("Roommate " + r + "-" + m, null, null, roomId));
+                long net = m == ROOMMATES_PER_ROOM - 1 ? -remaining : random.nextInt(20_000) - 10_000;
+                remaining += net;
+                long owed = 50_000 + random.nextInt(50_000);
+                database.balanceDao().upsertBalance(new BalanceEntry(roommateId, roomId, owed + net, owed, net));
+            }
+        }
+    }
+
+    @Test
+    public void allRoomsMatchesSequentialAndReportsTimings() throws Exception {
+        Map<Long, DatabaseHelper.BalanceResult> sequential = runSequential();
+        List<DatabaseHelper.RoomBalanceSummary> parallel = runParallel();
+
+        assertEquals(ROOMS, parallel.size());
+        for (DatabaseHelper.RoomBalanceSummary summary : parallel) {
+            DatabaseHelper.BalanceResult expected = sequential.get(summary.room.id);
+            assertEquals(expected.balances.size(), summary.balance.balances.size());
+            for (int i = 0; i < expected.balances.size(); i++) {
+                assertEquals(expected.balances.get(i).netCents, summary.balance.balances.get(i).netCents);
+            }
+            assertEquals(expected.transfers.size(), summary.balance.transfers.size());
+        }
+
+        long sequentialNanos = Long.MAX_VALUE;
+        long parallelNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            runSequential();
+            sequentialNanos = Math.min(sequentialNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            runParallel();
+            parallelNanos = Math.min(parallelNanos, System.nanoTime() - start);
+        }
+        Log.i(TAG, String.format("%d rooms, best of %d: sequential %.1f ms, fork/join (%d workers) %.1f ms",
+                ROOMS, RUNS, sequentialNanos / 1e6, DatabaseHelper.READ_PARALLELISM, parallelNanos / 1e6));
+    }
+
+    private Map<Long, DatabaseHelper.BalanceResult> runSequential() throws InterruptedException {
+        Map<Long, DatabaseHelper.BalanceResult> results = new HashMap<>();
+        CountDownLatch done = new CountDownLatch(roomIds.length);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        for (long roomId : roomIds) {
+            helper.calculateBalance(roomId, new DatabaseHelper.Callback<DatabaseHelper.BalanceResult>() {
+                @Override
+                public void onSuccess(DatabaseHelper.BalanceResult result) {
+                    // Callbacks arrive one at a time on the helper's executor
+                    results.put(roomId, result);
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    failure.set(e);
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(2, TimeUnit.MINUTES));
+        assertNull(failure.get());
+        return results;
+    }
+
+    private List<DatabaseHelper.RoomBalanceSummary> runParallel() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<List<DatabaseHelper.RoomBalanceSummary>> results = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        helper.getAllRoomBalances(new DatabaseHelper.Callback<List<DatabaseHelper.RoomBalanceSummary>>() {
+            @Override
+            public void onSuccess(List<DatabaseHelper.RoomBalanceSummary> result) {
+                results.set(result);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failure.set(e);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(2, TimeUnit.MINUTES));
+        assertNull(failure.get());
+        return results.get();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.roomshare;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.BalanceEntry;
+import com.example.roomshare.data.Expense;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.SplitMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Adds expenses through every {@link SplitMode}, deletes one, and has
+ * {@link DatabaseHelper#checkBalanceLedger} replay the expense and share rows to confirm
+ * the incrementally maintained balances never drifted.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BalanceLedgerTest {
+    private AppDatabase database;
+    private DatabaseHelper helper;
+    private long roomId;
+    private long alice;
+    private long bob;
+    private long carol;
+    private long otherRoomId;
+    private long dave;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .addCallback(AppDatabase.CREATE_TRIGGERS)
+                .build();
+        helper = new DatabaseHelper(database);
+        roomId = database.roomDao().insertRoom(new RoomEntity("Flat"));
+        // Through the helper so each roommate also gets a ledger row
+        alice = addRoommate("Alice", roomId);
+        bob = addRoommate("Bob", roomId);
+        carol = addRoommate("Carol", roomId);
+        otherRoomId = database.roomDao().insertRoom(new RoomEntity("Other flat"));
+        dave = addRoommate("Dave", otherRoomId);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void everySplitModeAndDeleteKeepTheLedgerConsistent() throws Exception {
+        long[] everyone = {alice, bob, carol};
+        long rent = await(cb -> helper.addExpense("Rent", 100000, alice, roomId, cb));
+        this.<Long>await(cb -> helper.addExpense("Pizza", 2999, bob, roomId, SplitMode.EQUAL,
+                new long[] {alice, bob}, null, cb));
+        this.<Long>await(cb -> helper.addExpense("Power", 10001, carol, roomId, SplitMode.WEIGHTED,
+                everyone, new long[] {1, 2, 3}, cb));
+        this.<Long>await(cb -> helper.addExpense("Internet", 4999, alice, roomId, SplitMode.PERCENTAGE,
+                everyone, new long[] {5000, 3333, 1667}, cb));
+        long taxi = await(cb -> helper.addExpense("Taxi", 1500, bob, roomId, SplitMode.EXACT,
+                new long[] {bob, carol}, new long[] {1000, 500}, cb));
+        assertConsistent();
+
+        this.<Void>await(cb -> helper.deleteExpense(taxi, cb));
+        assertConsistent();
+        this.<Void>await(cb -> helper.deleteExpense(rent, cb));
+        assertConsistent();
+
+        DatabaseHelper.BalanceResult balance = await(cb -> helper.calculateBalance(roomId, cb));
+        long net = 0;
+        for (DatabaseHelper.RoommateBalance entry : balance.balances) {
+            net += entry.netCents;
+        }
+        assertEquals(0, net);
+    }
+
+    @Test
+    public void rejectsInvalidExpensesBeforeTouchingTheLedger() throws Exception {
+        long[] everyone = {alice, bob, carol};
+        this.<Long>assertRejected(cb -> helper.addExpense("Rent", 1000, dave, roomId, cb));
+        this.<Long>assertRejected(cb -> helper.addExpense("Rent", 1000, dave, roomId, SplitMode.EQUAL,
+                everyone, null, cb));
+        this.<Long>assertRejected(cb -> helper.addExpense("Rent", 1000, alice, roomId, SplitMode.EQUAL,
+                new long[] {alice, bob, alice}, null, cb));
+        this.<Long>assertRejected(cb -> helper.addExpense("Rent", 1000, alice, roomId, SplitMode.EXACT,
+                new long[] {alice, alice}, new long[] {500, 500}, cb));
+        this.<Long>assertRejected(cb -> helper.addExpense("Rent", 1000, alice, roomId, SplitMode.EQUAL,
+                new long[0], null, cb));
+        Expense stray = new Expense("Rent", 1000, dave, roomId, 0, null);
+        this.<List<Long>>assertRejected(cb -> helper.addExpenses(Collections.singletonList(stray), cb));
+
+        assertTrue(database.expenseDao().getExpensesByRoom(roomId).isEmpty());
+        for (BalanceEntry entry : database.balanceDao().getBalancesByRoom(otherRoomId)) {
+            assertEquals(0, entry.paidCents);
+        }
+        for (BalanceEntry entry : database.balanceDao().getBalancesByRoom(roomId)) {
+            assertEquals(0, entry.owedCents);
+        }
+        assertConsistent();
+    }
+
+    private long addRoommate(String name, long roomId) throws InterruptedException {
+        return this.<Long>await(cb -> helper.addRoommate(name, null, null, roomId, cb));
+    }
+
+    private void assertConsistent() throws InterruptedException {
+        DatabaseHelper.LedgerCheckResult result = await(cb -> helper.checkBalanceLedger(roomId, false, cb));
+        assertTrue(result.drifts.size() + " roommates drifted", result.isConsistent());
+        assertFalse(result.repaired);
+    }
+
+    private <T> void assertRejected(Consumer<DatabaseHelper.Callback<T>> call) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        call.accept(new DatabaseHelper.Callback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failure.set(e);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertTrue(String.valueOf(failure.get()), failure.get() instanceof IllegalArgumentException);
+    }
+
+    private <T> T await(Consumer<DatabaseHelper.Callback<T>> call) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        call.accept(new DatabaseHelper.Callback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                result.set(value);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failure.set(e);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertNull(failure.get());
+        return result.get();
+    }
+}
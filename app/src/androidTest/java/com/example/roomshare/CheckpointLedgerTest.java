@@ -0,0 +1,180 @@
+package com.example.roomshare;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.BalanceCheckpoint;
+import com.example.roomshare.data.BalanceEntry;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.SplitMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Adds enough expenses through {@link DatabaseHelper} to cross
+ * {@link DatabaseHelper#CHECKPOINT_INTERVAL}, then deletes expenses on either side of the
+ * checkpoint's watermark. Each delete rebuilds the ledger from the checkpoint plus the newer
+ * expenses, and the result is compared with totals aggregated from scratch.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CheckpointLedgerTest {
+    private AppDatabase database;
+    private SupportSQLiteDatabase db;
+    private DatabaseHelper helper;
+    private long roomId;
+    private long[] roommates;
+    private final List<Long> expenses = new ArrayList<>();
+    private final Random random = new Random(11);
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .addCallback(AppDatabase.CREATE_TRIGGERS)
+                .build();
+        db = database.getOpenHelper().getWritableDatabase();
+        helper = new DatabaseHelper(database);
+        roomId = database.roomDao().insertRoom(new RoomEntity("Flat"));
+        roommates = new long[4];
+        for (int i = 0; i < roommates.length; i++) {
+            String name = "Roommate " + i;
+            roommates[i] = this.<Long>await(cb -> helper.addRoommate(name, null, null, roomId, cb));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void rebuildFromCheckpointMatchesAFullAggregate() throws Exception {
+        addExpenses(DatabaseHelper.CHECKPOINT_INTERVAL);
+        long watermark = watermark();
+        assertEquals((long) expenses.get(DatabaseHelper.CHECKPOINT_INTERVAL - 1), watermark);
+        addExpenses(20);
+        assertLedgerMatchesAggregate();
+
+        // Above the watermark: the checkpoint stays and the rebuild starts from it
+        long newer = expenses.remove(expenses.size() - 5);
+        this.<Void>await(cb -> helper.deleteExpense(newer, cb));
+        assertEquals(watermark, watermark());
+        assertLedgerMatchesAggregate();
+
+        // At or below it: the checkpoint is stale, is dropped, and the rebuild starts over
+        long older = expenses.remove(10);
+        this.<Void>await(cb -> helper.deleteExpense(older, cb));
+        assertEquals(0, watermark());
+        assertLedgerMatchesAggregate();
+
+        // Crossing the interval again writes a fresh checkpoint that later rebuilds use
+        addExpenses(1);
+        long fresh = watermark();
+        assertEquals((long) expenses.get(expenses.size() - 1), fresh);
+        addExpenses(5);
+        long latest = expenses.remove(expenses.size() - 1);
+        this.<Void>await(cb -> helper.deleteExpense(latest, cb));
+        assertEquals(fresh, watermark());
+        assertLedgerMatchesAggregate();
+    }
+
+    private void addExpenses(int count) throws InterruptedException {
+        SplitMode[] modes = SplitMode.values();
+        for (int i = 0; i < count; i++) {
+            long amount = 1 + random.nextInt(50_000);
+            long payer = roommates[random.nextInt(roommates.length)];
+            SplitMode mode = modes[i % modes.length];
+            long[] values = new long[roommates.length];
+            switch (mode) {
+                case WEIGHTED:
+                    for (int r = 0; r < values.length; r++) values[r] = 1 + random.nextInt(5);
+                    break;
+                case PERCENTAGE:
+                    values = new long[] {4000, 3000, 2000, 1000};
+                    break;
+                case EXACT:
+                    values = SplitMode.equalShares(amount, roommates.length);
+                    break;
+                default:
+                    values = null;
+            }
+            long[] splitValues = values;
+            expenses.add(this.<Long>await(cb -> helper.addExpense("Expense", amount, payer, roomId, mode,
+                    roommates, splitValues, cb)));
+        }
+    }
+
+    private long watermark() {
+        long watermark = 0;
+        for (BalanceCheckpoint checkpoint : database.balanceCheckpointDao().getCheckpoints(roomId)) {
+            watermark = checkpoint.watermark;
+        }
+        return watermark;
+    }
+
+    private void assertLedgerMatchesAggregate() {
+        Map<Long, long[]> expected = new HashMap<>();
+        try (Cursor cursor = db.query("SELECT r.id, "
+                + "(SELECT COALESCE(SUM(e.amount_cents), 0) FROM expenses e "
+                + "WHERE e.payer_id = r.id AND e.room_id = r.room_id), "
+                + "(SELECT COALESCE(SUM(s.share_cents), 0) FROM expense_shares s "
+                + "JOIN expenses e ON e.id = s.expense_id WHERE s.roommate_id = r.id AND e.room_id = r.room_id) "
+                + "FROM roommates r WHERE r.room_id = ?", new Object[] {roomId})) {
+            while (cursor.moveToNext()) {
+                expected.put(cursor.getLong(0), new long[] {cursor.getLong(1), cursor.getLong(2)});
+            }
+        }
+
+        List<BalanceEntry> ledger = database.balanceDao().getBalancesByRoom(roomId);
+        assertEquals(roommates.length, ledger.size());
+        for (BalanceEntry entry : ledger) {
+            long[] totals = expected.get(entry.roommateId);
+            assertEquals("paid by " + entry.roommateId, totals[0], entry.paidCents);
+            assertEquals("owed by " + entry.roommateId, totals[1], entry.owedCents);
+            assertEquals("net of " + entry.roommateId, totals[0] - totals[1], entry.netCents);
+        }
+    }
+
+    private <T> T await(Consumer<DatabaseHelper.Callback<T>> call) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        call.accept(new DatabaseHelper.Callback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                result.set(value);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failure.set(e);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertNull(failure.get());
+        return result.get();
+    }
+}
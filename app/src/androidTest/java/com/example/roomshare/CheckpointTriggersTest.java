@@ -0,0 +1,143 @@
+package com.example.roomshare;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.BalanceCheckpoint;
+import com.example.roomshare.data.BalanceCheckpointDao;
+import com.example.roomshare.data.Expense;
+import com.example.roomshare.data.ExpenseShare;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.Roommate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Edits expenses and shares on either side of a checkpoint watermark and checks that the
+ * checkpoint triggers drop exactly the checkpoints the edit makes stale.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CheckpointTriggersTest {
+    private AppDatabase database;
+    private SupportSQLiteDatabase db;
+    private BalanceCheckpointDao checkpoints;
+    private long roomA;
+    private long roomB;
+    private long alice;
+    private long bob;
+    private long carol;
+    private final long[] expenses = new long[4];
+    private long watermarkA;
+    private long otherExpense;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .addCallback(AppDatabase.CREATE_TRIGGERS)
+                .build();
+        db = database.getOpenHelper().getWritableDatabase();
+        checkpoints = database.balanceCheckpointDao();
+
+        roomA = database.roomDao().insertRoom(new RoomEntity("A"));
+        roomB = database.roomDao().insertRoom(new RoomEntity("B"));
+        alice = database.roommateDao().insertRoommate(new Roommate("Alice", null, null, roomA));
+        bob = database.roommateDao().insertRoommate(new Roommate("Bob", null, null, roomA));
+        carol = database.roommateDao().insertRoommate(new Roommate("Carol", null, null, roomB));
+        for (int i = 0; i < expenses.length; i++) {
+            expenses[i] = addExpense(roomA, alice, 1000);
+        }
+        watermarkA = expenses[1];
+        otherExpense = addExpense(roomB, carol, 500);
+        checkpoint(roomA, watermarkA, alice);
+        checkpoint(roomB, otherExpense, carol);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void editsAboveTheWatermarkKeepTheCheckpoint() {
+        db.execSQL("UPDATE expenses SET amount_cents = 2000 WHERE id = ?", new Object[] {expenses[3]});
+        db.execSQL("UPDATE expense_shares SET share_cents = 1000 WHERE expense_id = ? AND roommate_id = ?",
+                new Object[] {expenses[2], alice});
+        db.execSQL("DELETE FROM expenses WHERE id = ?", new Object[] {expenses[3]});
+        addExpense(roomA, bob, 300);
+
+        assertCheckpointed(roomA, true);
+        assertCheckpointed(roomB, true);
+    }
+
+    @Test
+    public void updatingAnOlderExpenseDropsOnlyItsRoom() {
+        db.execSQL("UPDATE expenses SET amount_cents = 2000 WHERE id = ?", new Object[] {expenses[0]});
+
+        assertCheckpointed(roomA, false);
+        assertCheckpointed(roomB, true);
+    }
+
+    @Test
+    public void deletingAnOlderExpenseDropsTheCheckpoint() {
+        db.execSQL("DELETE FROM expenses WHERE id = ?", new Object[] {watermarkA});
+
+        assertCheckpointed(roomA, false);
+        assertCheckpointed(roomB, true);
+    }
+
+    @Test
+    public void movingAnExpenseDropsBothRooms() {
+        // expenses[2] is above room A's watermark but below room B's
+        db.execSQL("UPDATE expenses SET room_id = ?, payer_id = ? WHERE id = ?",
+                new Object[] {roomB, carol, expenses[2]});
+
+        assertCheckpointed(roomA, true);
+        assertCheckpointed(roomB, false);
+    }
+
+    @Test
+    public void shareChangesOnOlderExpensesDropTheCheckpoint() {
+        database.expenseShareDao().insertShares(Collections.singletonList(new ExpenseShare(expenses[0], bob, 0)));
+        assertCheckpointed(roomA, false);
+
+        checkpoint(roomA, watermarkA, alice);
+        db.execSQL("UPDATE expense_shares SET share_cents = 400 WHERE expense_id = ? AND roommate_id = ?",
+                new Object[] {expenses[1], alice});
+        assertCheckpointed(roomA, false);
+
+        checkpoint(roomA, watermarkA, alice);
+        db.execSQL("DELETE FROM expense_shares WHERE expense_id = ?", new Object[] {expenses[0]});
+        assertCheckpointed(roomA, false);
+
+        assertCheckpointed(roomB, true);
+    }
+
+    private long addExpense(long roomId, long payerId, long cents) {
+        long id = database.expenseDao().insertExpense(new Expense("Expense", cents, payerId, roomId, 1, "2024-01-01"));
+        database.expenseShareDao().insertShares(Collections.singletonList(new ExpenseShare(id, payerId, cents)));
+        return id;
+    }
+
+    private void checkpoint(long roomId, long watermark, long roommateId) {
+        checkpoints.deleteCheckpoints(roomId);
+        checkpoints.insertCheckpoints(Collections.singletonList(
+                new BalanceCheckpoint(roommateId, roomId, watermark, 0, 0)));
+    }
+
+    private void assertCheckpointed(long roomId, boolean expected) {
+        assertEquals("room " + roomId + " checkpoint", expected, !checkpoints.getCheckpoints(roomId).isEmpty());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.roomshare;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.BalanceAccumulator;
+import com.example.roomshare.data.CursorAccumulators;
+import com.example.roomshare.data.ReportAccumulator;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.Roommate;
+import com.example.roomshare.data.RoommateIndex;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Streams a room with hundreds of thousands of chores and expenses out of a file-backed
+ * database through the accumulators, and checks that the heap does not grow with the row
+ * count the way it would if the rows were loaded as a list.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CursorAccumulatorsTest {
+    private static final String DB_NAME = "cursor-accumulators-test.db";
+    private static final int ROWS = 300_000;
+    private static final int ROOMMATES = 6;
+    private static final long HEAP_SLACK_BYTES = 8 * 1024 * 1024;
+
+    private Context context;
+    private AppDatabase database;
+    private long roomId;
+    private long[] roommateIds;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        database = Room.databaseBuilder(context, AppDatabase.class, DB_NAME)
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .build();
+        database.runInTransaction(this::seed);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    // Chore i is assigned to nobody when i % 3 == 0 and is completed when i is odd. Expense
+    // i costs 600 cents, paid by roommate i % 6 and shared 300/300 with the next roommate.
+    private void seed() {
+        roomId = database.roomDao().insertRoom(new RoomEntity("Streamed"));
+        roommateIds = new long[ROOMMATES];
+        for (int m = 0; m < ROOMMATES; m++) {
+            roommateIds[m] = database.roommateDao().insertRoommate(new Roommate("Roommate " + m, null, null, roomId));
+        }
+
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        SupportSQLiteStatement chore = db.compileStatement(
+                "INSERT INTO chores (name, assigned_to_id, room_id, completed, date) VALUES ('Chore', ?, ?, ?, '2024-01-01')");
+        SupportSQLiteStatement expense = db.compileStatement(
+                "INSERT INTO expenses (name, amount_cents, payer_id, room_id, split_count, date) VALUES ('Expense', 600, ?, ?, 2, '2024-01-01')");
+        SupportSQLiteStatement share = db.compileStatement(
+                "INSERT INTO expense_shares (expense_id, roommate_id, share_cents) VALUES (?, ?, 300)");
+        for (int i = 0; i < ROWS; i++) {
+            if (i % 3 == 0) {
+                chore.bindNull(1);
+            } else {
+                chore.bindLong(1, roommateIds[i % 2]);
+            }
+            chore.bindLong(2, roomId);
+            chore.bindLong(3, i % 2);
+            chore.executeInsert();
+
+            expense.bindLong(1, roommateIds[i % ROOMMATES]);
+            expense.bindLong(2, roomId);
+            long expenseId = expense.executeInsert();
+            for (int s = 0; s < 2; s++) {
+                share.bindLong(1, expenseId);
+                share.bindLong(2, roommateIds[(i + s) % ROOMMATES]);
+                share.executeInsert();
+            }
+        }
+    }
+
+    @Test
+    public void streamsReportInBoundedMemory() {
+        ReportAccumulator accumulator = new ReportAccumulator(new RoommateIndex(new long[] {roommateIds[0], roommateIds[1]}));
+
+        long heapBefore = usedHeap();
+        try (Cursor chores = database.choreDao().streamChoreStatus(roomId)) {
+            assertEquals(ROWS, CursorAccumulators.addChores(chores, accumulator));
+        }
+        try (Cursor amounts = database.expenseDao().streamAmounts(roomId)) {
+            assertEquals(ROWS, CursorAccumulators.addExpenses(amounts, accumulator));
+        }
+        long heapGrowth = usedHeap() - heapBefore;
+
+        assertEquals(ROWS, accumulator.totalChores());
+        assertEquals(ROWS / 2, accumulator.completedChores());
+        assertEquals(ROWS / 2 - ROWS / 6, accumulator.completedBy(0) + accumulator.completedBy(1));
+        assertEquals(ROWS, accumulator.expenseCount());
+        assertEquals(ROWS * 600L, accumulator.totalCents());
+        assertTrue("heap grew by " + heapGrowth + " bytes", heapGrowth < HEAP_SLACK_BYTES);
+    }
+
+    @Test
+    public void streamsBalancesInBoundedMemory() {
+        BalanceAccumulator accumulator = new BalanceAccumulator(new RoommateIndex(roommateIds));
+
+        long heapBefore = usedHeap();
+        try (Cursor paid = database.expenseDao().streamPaid(roomId)) {
+            assertEquals(ROWS, CursorAccumulators.addPaid(paid, accumulator));
+        }
+        try (Cursor owed = database.expenseShareDao().streamOwed(roomId)) {
+            assertEquals(ROWS * 2L, CursorAccumulators.addOwed(owed, accumulator));
+        }
+        long heapGrowth = usedHeap() - heapBefore;
+
+        for (int slot = 0; slot < ROOMMATES; slot++) {
+            assertEquals(ROWS / ROOMMATES * 600L, accumulator.paid(slot));
+            assertEquals(0, accumulator.net(slot));
+        }
+        assertTrue("heap grew by " + heapGrowth + " bytes", heapGrowth < HEAP_SLACK_BYTES);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.roomshare;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.BalanceEntry;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.Roommate;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pushes a burst of addExpense/addChore calls through the group-commit writer at batch
+ * sizes 1, 16 and 256 and logs writes per second and the average batch size under
+ * {@link #TAG}. The database carries the app's triggers, so each write includes their
+ * upkeep.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GroupCommitBenchmark {
+    private static final String TAG = "GroupCommitBench";
+    private static final String DB_NAME = "group-commit-benchmark.db";
+    private static final int ROOMMATES = 6;
+    private static final int WRITES = 4096;
+
+    @Test
+    public void batchSize1() throws Exception {
+        run(1);
+    }
+
+    @Test
+    public void batchSize16() throws Exception {
+        run(16);
+    }
+
+    @Test
+    public void batchSize256() throws Exception {
+        run(256);
+    }
+
+    private void run(int maxBatch) throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, DB_NAME)
+                .addCallback(AppDatabase.CREATE_TRIGGERS)
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .build();
+        DbScheduler scheduler = DbScheduler.split(database::runInTransaction, DatabaseHelper.READ_PARALLELISM,
+                maxBatch, DbScheduler.DEFAULT_WINDOW_MILLIS);
+        try {
+            long roomId = database.roomDao().insertRoom(new RoomEntity("Group commit"));
+            long[] roommateIds = new long[ROOMMATES];
+            for (int m = 0; m < ROOMMATES; m++) {
+                roommateIds[m] = database.roommateDao().insertRoommate(new Roommate("Writer " + m, null, null, roomId));
+                database.balanceDao().upsertBalance(new BalanceEntry(roommateIds[m], roomId));
+            }
+            DatabaseHelper helper = new DatabaseHelper(database, scheduler);
+
+            CountDownLatch done = new CountDownLatch(WRITES);
+            AtomicInteger errors = new AtomicInteger();
+            DatabaseHelper.Callback<Long> callback = new DatabaseHelper.Callback<Long>() {
+                @Override
+                public void onSuccess(Long result) {
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    errors.incrementAndGet();
+                    done.countDown();
+                }
+            };
+
+            long start = System.nanoTime();
+            for (int i = 0; i < WRITES; i++) {
+                if (i % 2 == 0) {
+                    helper.addExpense("Burst " + i, 100 + i, roommateIds[i % ROOMMATES], roomId, callback);
+                } else {
+                    helper.addChore("Burst " + i, roommateIds[i % ROOMMATES], roomId, callback);
+                }
+            }
+            assertTrue(done.await(5, TimeUnit.MINUTES));
+            long elapsed = System.nanoTime() - start;
+            assertEquals(0, errors.get());
+
+            GroupCommitWriter writer = scheduler.writer();
+            assertEquals(WRITES, writer.committedWrites());
+            Log.i(TAG, String.format("maxBatch=%d: %d writes in %.1f ms (%.0f writes/s), %d commits, avg batch %.1f",
+                    maxBatch, WRITES, elapsed / 1e6, WRITES / (elapsed / 1e9), writer.commits(),
+                    (double) writer.committedWrites() / writer.commits()));
+        } finally {
+            scheduler.shutdown();
+            database.close();
+            context.deleteDatabase(DB_NAME);
+        }
+    }
+}
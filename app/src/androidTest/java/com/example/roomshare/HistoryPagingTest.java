@@ -0,0 +1,132 @@
+package com.example.roomshare;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.Chore;
+import com.example.roomshare.data.Expense;
+import com.example.roomshare.data.HistoryRow;
+import com.example.roomshare.data.HistorySearch;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.Roommate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pages a room's combined chore and expense history by keyset and checks that the pages
+ * join up into the full newest-first timeline, with every row exactly once even where
+ * many rows share a date.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HistoryPagingTest {
+    private static final int ROWS_PER_TYPE = 120;
+    private static final int PAGE_SIZE = 7;
+
+    private AppDatabase database;
+    private long roomId;
+    private final List<String> expected = new ArrayList<>();
+    private final List<String> expectedGrocery = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .addCallback(AppDatabase.CREATE_TRIGGERS)
+                .build();
+        database.runInTransaction(this::seed);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    // Five distinct dates spread over 240 rows, so most of the order comes from type and id
+    private void seed() {
+        roomId = database.roomDao().insertRoom(new RoomEntity("Paged"));
+        long otherRoom = database.roomDao().insertRoom(new RoomEntity("Other"));
+        long payer = database.roommateDao().insertRoommate(new Roommate("Alice", null, null, roomId));
+        long otherPayer = database.roommateDao().insertRoommate(new Roommate("Bob", null, null, otherRoom));
+
+        Random random = new Random(23);
+        List<HistoryRow> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS_PER_TYPE; i++) {
+            String date = "2024-01-0" + (1 + random.nextInt(5));
+            String expenseName = i % 3 == 0 ? "Groceries " + i : "Rent " + i;
+            long expenseId = database.expenseDao().insertExpense(new Expense(expenseName, 100, payer, roomId, 1, date));
+            rows.add(row(HistorySearch.EXPENSE, expenseId, expenseName, date));
+
+            date = "2024-01-0" + (1 + random.nextInt(5));
+            String choreName = i % 4 == 0 ? "Grocery run " + i : "Dishes " + i;
+            long choreId = database.choreDao().insertChore(new Chore(choreName, null, roomId, 0, date));
+            rows.add(row(HistorySearch.CHORE, choreId, choreName, date));
+
+            database.expenseDao().insertExpense(new Expense("Groceries elsewhere", 100, otherPayer, otherRoom, 1, date));
+        }
+
+        rows.sort(Comparator.<HistoryRow, String>comparing(row -> row.date)
+                .thenComparingInt(row -> row.type)
+                .thenComparingLong(row -> row.id)
+                .reversed());
+        for (HistoryRow row : rows) {
+            expected.add(describe(row));
+            if (row.name.startsWith("Grocer")) {
+                expectedGrocery.add(describe(row));
+            }
+        }
+    }
+
+    @Test
+    public void pagesJoinUpIntoTheTimeline() {
+        assertEquals(expected, readAllPages(null));
+    }
+
+    @Test
+    public void filteredPagesKeepOnlyMatchesInOrder() {
+        assertEquals(expectedGrocery, readAllPages(HistorySearch.matchQuery("gro")));
+    }
+
+    private List<String> readAllPages(String match) {
+        List<String> seen = new ArrayList<>();
+        DatabaseHelper.HistoryKey after = DatabaseHelper.HistoryKey.FIRST;
+        while (true) {
+            List<HistoryRow> page = database.historyDao().getHistoryPage(roomId, after.date, after.type, after.id,
+                    match, PAGE_SIZE);
+            for (HistoryRow row : page) {
+                seen.add(describe(row));
+            }
+            if (page.size() < PAGE_SIZE) {
+                return seen;
+            }
+            HistoryRow last = page.get(page.size() - 1);
+            after = new DatabaseHelper.HistoryKey(last.date, last.type, last.id);
+        }
+    }
+
+    private static HistoryRow row(int type, long id, String name, String date) {
+        HistoryRow row = new HistoryRow();
+        row.type = type;
+        row.id = id;
+        row.name = name;
+        row.date = date;
+        return row;
+    }
+
+    private static String describe(HistoryRow row) {
+        return row.date + "/" + row.type + "/" + row.id + "/" + row.name;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.roomshare;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.Chore;
+import com.example.roomshare.data.Expense;
+import com.example.roomshare.data.HistoryMatch;
+import com.example.roomshare.data.HistorySearch;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.Roommate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the SQL-side ranking of history_fts against a database kept current by the app's
+ * triggers.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HistorySearchRankingTest {
+    private AppDatabase database;
+    private long roomA;
+    private long groceries;
+    private long groceryRun;
+    private long gas;
+    private long rent;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .addCallback(AppDatabase.CREATE_TRIGGERS)
+                .build();
+        roomA = database.roomDao().insertRoom(new RoomEntity("A"));
+        long roomB = database.roomDao().insertRoom(new RoomEntity("B"));
+        long alice = database.roommateDao().insertRoommate(new Roommate("Alice", null, null, roomA));
+        long gaston = database.roommateDao().insertRoommate(new Roommate("Gaston", null, null, roomA));
+        long carol = database.roommateDao().insertRoommate(new Roommate("Carol", null, null, roomB));
+
+        groceries = database.expenseDao().insertExpense(new Expense("Groceries", 4000, alice, roomA, 2, "2024-01-01"));
+        gas = database.expenseDao().insertExpense(new Expense("Gas", 3000, alice, roomA, 2, "2024-01-02"));
+        rent = database.expenseDao().insertExpense(new Expense("Rent", 90000, gaston, roomA, 2, "2024-01-03"));
+        database.expenseDao().insertExpense(new Expense("Groceries", 2500, carol, roomB, 1, "2024-01-04"));
+        groceryRun = database.choreDao().insertChore(new Chore("Grocery run", alice, roomA, 0, "2024-01-05"));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void nameHitsOutrankPersonHits() {
+        List<HistoryMatch> matches = search("gas", roomA, 10);
+
+        assertEquals(2, matches.size());
+        assertEquals(rowidOfExpense(gas), matches.get(0).rowid);
+        assertEquals(1.0, matches.get(0).score, 1e-9);
+        assertEquals(rowidOfExpense(rent), matches.get(1).rowid);
+        assertEquals(0.5, matches.get(1).score, 1e-9);
+    }
+
+    @Test
+    public void equalScoresComeNewestRowidFirstAndLimitApplies() {
+        List<HistoryMatch> matches = search("gro", roomA, 10);
+        assertEquals(2, matches.size());
+        assertEquals(matches.get(0).score, matches.get(1).score, 1e-9);
+        assertTrue(matches.get(0).rowid > matches.get(1).rowid);
+
+        List<HistoryMatch> top = search("gro", roomA, 1);
+        assertEquals(1, top.size());
+        assertEquals(matches.get(0).rowid, top.get(0).rowid);
+    }
+
+    @Test
+    public void roomFilterIsOptional() {
+        assertEquals(2, search("groceries", null, 10).size());
+        assertEquals(1, search("groceries", roomA, 10).size());
+        assertEquals(rowidOfExpense(groceries), search("groceries", roomA, 10).get(0).rowid);
+        assertEquals(groceryRun * 2, search("grocery", roomA, 10).get(0).rowid);
+    }
+
+    private List<HistoryMatch> search(String text, Long roomId, int limit) {
+        return database.historySearchDao().search(HistorySearch.matchQuery(text), roomId, limit);
+    }
+
+    private static long rowidOfExpense(long id) {
+        return id * 2 + 1;
+    }
+}
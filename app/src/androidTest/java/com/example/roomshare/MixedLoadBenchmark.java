@@ -0,0 +1,188 @@
+package com.example.roomshare;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.BalanceEntry;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.Roommate;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives the same mixed read/write load through the serial scheduler and the split
+ * read pool / writer lane, and logs throughput and latency percentiles for each under
+ * {@link #TAG}. The database carries the app's triggers, so writes pay for the stats,
+ * version and search index upkeep they pay for in production.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MixedLoadBenchmark {
+    private static final String TAG = "MixedLoadBench";
+    private static final String DB_NAME = "mixed-load-benchmark.db";
+    private static final int ROOMS = 20;
+    private static final int ROOMMATES_PER_ROOM = 6;
+    private static final int SEED_EXPENSES_PER_ROOM = 200;
+    private static final int CLIENTS = 8;
+    private static final int OPS_PER_CLIENT = 250;
+
+    @Test
+    public void serialScheduler() throws Exception {
+        run("serial", DbScheduler::serial);
+    }
+
+    @Test
+    public void splitScheduler() throws Exception {
+        run("split", transaction -> DbScheduler.split(transaction, DatabaseHelper.READ_PARALLELISM));
+    }
+
+    private void run(String label, Function<Consumer<Runnable>, DbScheduler> schedulerFactory) throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DB_NAME);
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, DB_NAME)
+                .addCallback(AppDatabase.CREATE_TRIGGERS)
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .build();
+        DbScheduler scheduler = schedulerFactory.apply(database::runInTransaction);
+        try {
+            long[][] roommateIds = new long[ROOMS][ROOMMATES_PER_ROOM];
+            long[] roomIds = new long[ROOMS];
+            database.runInTransaction(() -> seed(database, roomIds, roommateIds));
+            DatabaseHelper helper = new DatabaseHelper(database, scheduler);
+            AtomicInteger errors = new AtomicInteger();
+            CountDownLatch seeded = new CountDownLatch(ROOMS * SEED_EXPENSES_PER_ROOM);
+            for (int r = 0; r < ROOMS; r++) {
+                for (int e = 0; e < SEED_EXPENSES_PER_ROOM; e++) {
+                    helper.addExpense("Seed", 1000 + e, roommateIds[r][e % ROOMMATES_PER_ROOM], roomIds[r],
+                            new Probe<>(null, 0, seeded, new AtomicInteger(), errors));
+                }
+            }
+            assertTrue(seeded.await(5, TimeUnit.MINUTES));
+
+            int total = CLIENTS * OPS_PER_CLIENT;
+            long[] readLatencies = new long[total];
+            long[] writeLatencies = new long[total];
+            AtomicInteger reads = new AtomicInteger();
+            AtomicInteger writes = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(total);
+
+            long start = System.nanoTime();
+            Thread[] clients = new Thread[CLIENTS];
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                clients[c] = new Thread(() -> {
+                    for (int i = 0; i < OPS_PER_CLIENT; i++) {
+                        int room = (client * OPS_PER_CLIENT + i) % ROOMS;
+                        long submitted = System.nanoTime();
+                        switch (i % 10) {
+                            case 0:
+                            case 5:
+                                helper.addExpense("Load", 2500, roommateIds[room][i % ROOMMATES_PER_ROOM],
+                                        roomIds[room], new Probe<>(writeLatencies, submitted, done, writes, errors));
+                                break;
+                            case 1:
+                                helper.generateReport(roomIds[room],
+                                        new Probe<>(readLatencies, submitted, done, reads, errors));
+                                break;
+                            case 2:
+                            case 3:
+                                helper.calculateBalance(roomIds[room],
+                                        new Probe<>(readLatencies, submitted, done, reads, errors));
+                                break;
+                            default:
+                                helper.getRoommates(roomIds[room],
+                                        new Probe<>(readLatencies, submitted, done, reads, errors));
+                                break;
+                        }
+                    }
+                });
+                clients[c].start();
+            }
+            for (Thread client : clients) {
+                client.join();
+            }
+            assertTrue(done.await(5, TimeUnit.MINUTES));
+            long elapsed = System.nanoTime() - start;
+            assertEquals(0, errors.get());
+
+            Log.i(TAG, String.format("%s: %d ops in %.1f ms (%.0f ops/s); reads %s; writes %s",
+                    label, total, elapsed / 1e6, total / (elapsed / 1e9),
+                    percentiles(readLatencies, reads.get()), percentiles(writeLatencies, writes.get())));
+        } finally {
+            scheduler.shutdown();
+            database.close();
+            context.deleteDatabase(DB_NAME);
+        }
+    }
+
+    private static void seed(AppDatabase database, long[] roomIds, long[][] roommateIds) {
+        for (int r = 0; r < ROOMS; r++) {
+            roomIds[r] = database.roomDao().insertRoom(new RoomEntity("Load " + r));
+            for (int m = 0; m < ROOMMATES_PER_ROOM; m++) {
+                roommateIds[r][m] = database.roommateDao().insertRoommate(
+                        new Roommate("Loader " + r + "-" + m, null, null, roomIds[r]));
+                database.balanceDao().upsertBalance(new BalanceEntry(roommateIds[r][m], roomIds[r]));
+            }
+        }
+    }
+
+    private static String percentiles(long[] latencies, int count) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return String.format("n=%d p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms", count,
+                at(sorted, 0.50), at(sorted, 0.95), at(sorted, 0.99), at(sorted, 1.0));
+    }
+
+    private static double at(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class Probe<T> implements DatabaseHelper.Callback<T> {
+        private final long[] latencies;
+        private final long submitted;
+        private final CountDownLatch done;
+        private final AtomicInteger slot;
+        private final AtomicInteger errors;
+
+        Probe(long[] latencies, long submitted, CountDownLatch done, AtomicInteger slot, AtomicInteger errors) {
+            this.latencies = latencies;
+            this.submitted = submitted;
+            this.done = done;
+            this.slot = slot;
+            this.errors = errors;
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            int index = slot.getAndIncrement();
+            if (latencies != null) {
+                latencies[index] = System.nanoTime() - submitted;
+            }
+            done.countDown();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            errors.incrementAndGet();
+            Log.e(TAG, "Operation failed", e);
+            onSuccess(null);
+        }
+    }
+}
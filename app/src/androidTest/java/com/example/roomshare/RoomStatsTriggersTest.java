@@ -0,0 +1,181 @@
+package com.example.roomshare;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.roomshare.data.AppDatabase;
+import com.example.roomshare.data.Chore;
+import com.example.roomshare.data.Expense;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.Roommate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives chores, expenses, roommates and rooms through every change the stats triggers
+ * handle, and after each step has {@link DatabaseHelper#checkRoomStats} rebuild the
+ * statistics from the base tables and compare them with the trigger-maintained rows.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RoomStatsTriggersTest {
+    private AppDatabase database;
+    private SupportSQLiteDatabase db;
+    private DatabaseHelper helper;
+    private long roomA;
+    private long roomB;
+    private long alice;
+    private long bob;
+    private long carol;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .addCallback(AppDatabase.CREATE_TRIGGERS)
+                .build();
+        db = database.getOpenHelper().getWritableDatabase();
+        helper = new DatabaseHelper(database);
+        roomA = database.roomDao().insertRoom(new RoomEntity("A"));
+        roomB = database.roomDao().insertRoom(new RoomEntity("B"));
+        alice = database.roommateDao().insertRoommate(new Roommate("Alice", null, null, roomA));
+        bob = database.roommateDao().insertRoommate(new Roommate("Bob", null, null, roomA));
+        carol = database.roommateDao().insertRoommate(new Roommate("Carol", null, null, roomB));
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void triggersKeepStatsConsistentThroughEveryChange() throws Exception {
+        long dishes = addChore("Dishes", alice, roomA, 0);
+        long trash = addChore("Trash", bob, roomA, 1);
+        long laundry = addChore("Laundry", null, roomA, 1);
+        long vacuum = addChore("Vacuum", carol, roomB, 0);
+        assertConsistent();
+
+        long groceries = addExpense("Groceries", 4000, alice, roomA);
+        long internet = addExpense("Internet", 2500, bob, roomA);
+        long rent = addExpense("Rent", 90000, carol, roomB);
+        assertConsistent();
+        assertEquals(2, database.roomStatsDao().getRoomStats(roomA).expenseCount);
+
+        execute("UPDATE chores SET completed = 1 WHERE id = ?", dishes);
+        execute("UPDATE chores SET completed = 0 WHERE id = ?", trash);
+        assertConsistent();
+
+        execute("UPDATE chores SET assigned_to_id = ? WHERE id = ?", bob, dishes);
+        execute("UPDATE chores SET assigned_to_id = ? WHERE id = ?", alice, laundry);
+        execute("UPDATE chores SET assigned_to_id = NULL WHERE id = ?", trash);
+        assertConsistent();
+
+        execute("UPDATE chores SET room_id = ?, assigned_to_id = NULL WHERE id = ?", roomA, vacuum);
+        execute("UPDATE chores SET room_id = ?, assigned_to_id = ? WHERE id = ?", roomB, carol, laundry);
+        execute("UPDATE expenses SET room_id = ?, payer_id = ? WHERE id = ?", roomB, carol, internet);
+        assertConsistent();
+
+        execute("UPDATE expenses SET amount_cents = 4250 WHERE id = ?", groceries);
+        assertConsistent();
+
+        execute("DELETE FROM chores WHERE id = ?", vacuum);
+        execute("DELETE FROM expenses WHERE id = ?", rent);
+        assertConsistent();
+
+        // Bob's chores become unassigned and his expenses cascade away
+        addExpense("Snacks", 800, bob, roomA);
+        execute("DELETE FROM roommates WHERE id = ?", bob);
+        assertConsistent();
+        assertTrue(database.roomStatsDao().getAssigneeStats(roomA).stream().noneMatch(s -> s.roommateId == bob));
+
+        assertNotNull(database.roomVersionDao().getVersion(roomB));
+        execute("DELETE FROM rooms WHERE id = ?", roomB);
+        assertConsistent();
+        assertNull(database.roomStatsDao().getRoomStats(roomB));
+        assertTrue(database.roomStatsDao().getAssigneeStats(roomB).isEmpty());
+        // Runs after the cascaded rows' version triggers, so nothing re-creates the row
+        assertNull(database.roomVersionDao().getVersion(roomB));
+        assertNotNull(database.roomVersionDao().getVersion(roomA));
+    }
+
+    @Test
+    public void repairFixesADriftedRow() throws Exception {
+        addChore("Dishes", alice, roomA, 1);
+        addExpense("Groceries", 4000, alice, roomA);
+        execute("UPDATE room_stats SET expense_cents = expense_cents + 1 WHERE room_id = ?", roomA);
+        execute("UPDATE assignee_stats SET completed_chores = 0 WHERE roommate_id = ?", alice);
+
+        DatabaseHelper.StatsCheckResult drifted = check(roomA, false);
+        assertFalse(drifted.isConsistent());
+        assertEquals(2, drifted.drifts.size());
+        assertFalse(drifted.repaired);
+
+        DatabaseHelper.StatsCheckResult repaired = check(roomA, true);
+        assertTrue(repaired.repaired);
+        assertTrue(check(roomA, false).isConsistent());
+        assertEquals(4000, database.roomStatsDao().getRoomStats(roomA).expenseCents);
+    }
+
+    private long addChore(String name, Long assignedToId, long roomId, int completed) {
+        return database.choreDao().insertChore(new Chore(name, assignedToId, roomId, completed, "2024-01-01"));
+    }
+
+    private long addExpense(String name, long cents, long payerId, long roomId) {
+        return database.expenseDao().insertExpense(new Expense(name, cents, payerId, roomId, 1, "2024-01-01"));
+    }
+
+    private void execute(String sql, Object... args) {
+        db.execSQL(sql, args);
+    }
+
+    private void assertConsistent() throws InterruptedException {
+        for (long roomId : new long[] {roomA, roomB}) {
+            DatabaseHelper.StatsCheckResult result = check(roomId, false);
+            assertTrue("room " + roomId + " drifted: " + describe(result), result.isConsistent());
+        }
+    }
+
+    private DatabaseHelper.StatsCheckResult check(long roomId, boolean repair) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<DatabaseHelper.StatsCheckResult> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        helper.checkRoomStats(roomId, repair, new DatabaseHelper.Callback<DatabaseHelper.StatsCheckResult>() {
+            @Override
+            public void onSuccess(DatabaseHelper.StatsCheckResult checked) {
+                result.set(checked);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failure.set(e);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertNull(failure.get());
+        return result.get();
+    }
+
+    private static String describe(DatabaseHelper.StatsCheckResult result) {
+        StringBuilder out = new StringBuilder();
+        for (DatabaseHelper.StatsDrift drift : result.drifts) {
+            out.append(drift.field).append(" expected ").append(drift.expected)
+                    .append(" was ").append(drift.actual).append("; ");
+        }
+        return out.toString();
+    }
+}
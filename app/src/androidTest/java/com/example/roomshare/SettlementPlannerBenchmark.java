@@ -0,0 +1,51 @@
+package com.example.roomshare;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.roomshare.data.SettlementPlanner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Times {@link SettlementPlanner#plan} for a 10,000 member co-op on the device. The best of
+ * {@link #RUNS} is written to logcat under {@link #TAG}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SettlementPlannerBenchmark {
+    private static final String TAG = "SettlementPlannerBench";
+    private static final int MEMBERS = 10_000;
+    private static final int RUNS = 5;
+
+    @Test
+    public void largeCoop() {
+        Random random = new Random(7);
+        long[] ids = new long[MEMBERS];
+        long[] nets = new long[MEMBERS];
+        long total = 0;
+        for (int i = 0; i < MEMBERS; i++) {
+            ids[i] = i + 1;
+            nets[i] = i == MEMBERS - 1 ? -total : random.nextInt(200_001) - 100_000;
+            total += nets[i];
+        }
+
+        List<SettlementPlanner.Transfer> transfers = null;
+        long bestNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            transfers = SettlementPlanner.plan(ids, nets);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        assertTrue(transfers.size() <= MEMBERS - 1);
+        Log.i(TAG, String.format("%d members -> %d transfers, best of %d: %.1f ms",
+                MEMBERS, transfers.size(), RUNS, bestNanos / 1e6));
+    }
+}
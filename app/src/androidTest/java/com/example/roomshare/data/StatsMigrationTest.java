@@ -0,0 +1,87 @@
+package com.example.roomshare.data;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Seeds chores and expenses without the stats tables, as a version 8 database has them,
+ * and checks that {@link AppDatabase#MIGRATION_8_9} backfills room_stats and
+ * assignee_stats from them.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StatsMigrationTest {
+    private AppDatabase database;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // No trigger callback, so nothing touches the stats tables before the migration runs
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        db = database.getOpenHelper().getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void backfillsStatsFromExistingRows() {
+        long roomA = database.roomDao().insertRoom(new RoomEntity("A"));
+        long roomB = database.roomDao().insertRoom(new RoomEntity("B"));
+        long empty = database.roomDao().insertRoom(new RoomEntity("Empty"));
+        long alice = database.roommateDao().insertRoommate(new Roommate("Alice", null, null, roomA));
+        long bob = database.roommateDao().insertRoommate(new Roommate("Bob", null, null, roomA));
+        long carol = database.roommateDao().insertRoommate(new Roommate("Carol", null, null, roomB));
+        database.choreDao().insertChore(new Chore("Dishes", alice, roomA, 1, "2024-01-01"));
+        database.choreDao().insertChore(new Chore("Trash", alice, roomA, 0, "2024-01-01"));
+        database.choreDao().insertChore(new Chore("Laundry", bob, roomA, 1, "2024-01-01"));
+        database.choreDao().insertChore(new Chore("Mopping", null, roomA, 1, "2024-01-01"));
+        database.choreDao().insertChore(new Chore("Vacuum", carol, roomB, 0, "2024-01-01"));
+        database.expenseDao().insertExpense(new Expense("Groceries", 4000, alice, roomA, 2, "2024-01-01"));
+        database.expenseDao().insertExpense(new Expense("Internet", 2500, bob, roomA, 2, "2024-01-01"));
+        database.expenseDao().insertExpense(new Expense("Rent", 90000, carol, roomB, 1, "2024-01-01"));
+
+        db.execSQL("DROP TABLE room_stats");
+        db.execSQL("DROP TABLE assignee_stats");
+        AppDatabase.MIGRATION_8_9.migrate(db);
+
+        RoomStatsDao stats = database.roomStatsDao();
+        assertStats(stats.getRoomStats(roomA), 4, 3, 2, 6500);
+        assertStats(stats.getRoomStats(roomB), 1, 0, 1, 90000);
+        assertStats(stats.getRoomStats(empty), 0, 0, 0, 0);
+
+        List<AssigneeStats> assigneesA = stats.getAssigneeStats(roomA);
+        assertEquals(2, assigneesA.size());
+        for (AssigneeStats assignee : assigneesA) {
+            assertEquals(assignee.roommateId == alice ? 2 : 1, assignee.choreCount);
+            assertEquals(1, assignee.completedChores);
+        }
+        List<AssigneeStats> assigneesB = stats.getAssigneeStats(roomB);
+        assertEquals(1, assigneesB.size());
+        assertEquals(carol, assigneesB.get(0).roommateId);
+        assertEquals(0, assigneesB.get(0).completedChores);
+    }
+
+    private static void assertStats(RoomStats stats, long chores, long completed, long expenses, long cents) {
+        assertNotNull(stats);
+        assertEquals(chores, stats.choreCount);
+        assertEquals(completed, stats.completedChores);
+        assertEquals(expenses, stats.expenseCount);
+        assertEquals(cents, stats.expenseCents);
+    }
+}
@@ -8,18 +8,24 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.roomshare.data.Money;
 import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.SettlementPlanner;
 import com.example.roomshare.databinding.ActivityBalanceBinding;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BalanceActivity extends AppCompatActivity {
     private ActivityBalanceBinding binding;
     private DatabaseHelper dbHelper;
+    private final DbRequests requests = new DbRequests();
     private List<RoomEntity> rooms = new ArrayList<>();
     private ArrayAdapter<String> roomAdapter;
     private Long currentRoomId = null;
+    private LiveQuery<DatabaseHelper.BalanceResult> balanceQuery;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -54,7 +60,7 @@ public class BalanceActivity extends AppCompatActivity {
     }
 
     private void loadRooms() {
-        dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
+        requests.replace("rooms", dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
             @Override
             public void onSuccess(List<RoomEntity> result) {
                 runOnUiThread(() -> {
@@ -75,7 +81,7 @@ public class BalanceActivity extends AppCompatActivity {
             public void onError(Exception e) {
                 runOnUiThread(() -> showStatus("Error loading rooms: " + e.getMessage()));
             }
-        });
+        }));
     }
 
     private void calculateBalance() {
@@ -84,20 +90,13 @@ public class BalanceActivity extends AppCompatActivity {
             return;
         }
 
-        dbHelper.calculateBalance(currentRoomId, new DatabaseHelper.Callback<DatabaseHelper.BalanceResult>() {
-            @Override
-            public void onSuccess(DatabaseHelper.BalanceResult result) {
-                runOnUiThread(() -> {
-                    displayBalance(result);
-                    showStatus("Balance calculated successfully");
-                });
-            }
-
-            @Override
-            public void onError(Exception e) {
-                runOnUiThread(() -> showStatus("Error calculating balance: " + e.getMessage()));
-            }
-        });
+        // Keeps following the room, so expenses added elsewhere show up while this is open
+        if (balanceQuery != null) {
+            balanceQuery.removeObservers(this);
+        }
+        balanceQuery = dbHelper.observeBalance(currentRoomId);
+        balanceQuery.observe(this, this::displayBalance,
+                e -> showStatus("Error calculating balance: " + e.getMessage()));
     }
 
     private void displayBalance(DatabaseHelper.BalanceResult balanceResult) {
@@ -106,14 +105,14 @@ public class BalanceActivity extends AppCompatActivity {
 
         for (DatabaseHelper.RoommateBalance balance : balanceResult.balances) {
             sb.append(balance.roommate.name).append(":\n");
-            sb.append("  Paid: $").append(String.format("%.2f", balance.paid)).append("\n");
-            sb.append("  Owed: $").append(String.format("%.2f", balance.owed)).append("\n");
+            sb.append("  Paid: $").append(Money.format(balance.paidCents)).append("\n");
+            sb.append("  Owed: $").append(Money.format(balance.owedCents)).append("\n");
 
-            if (balance.net > 0) {
-                sb.append("  Net Balance: +$").append(String.format("%.2f", balance.net))
+            if (balance.netCents > 0) {
+                sb.append("  Net Balance: +$").append(Money.format(balance.netCents))
                     .append(" (Others owe ").append(balance.roommate.name).append(")\n");
-            } else if (balance.net < 0) {
-                sb.append("  Net Balance: -$").append(String.format("%.2f", -balance.net))
+            } else if (balance.netCents < 0) {
+                sb.append("  Net Balance: -$").append(Money.format(-balance.netCents))
                     .append(" (").append(balance.roommate.name).append(" owes others)\n");
             } else {
                 sb.append("  Net Balance: $0.00 (Balanced)\n");
@@ -123,32 +122,19 @@ public class BalanceActivity extends AppCompatActivity {
 
         sb.append("=== SETTLEMENT SUMMARY ===\n\n");
 
-        List<DatabaseHelper.RoommateBalance> receivers = new ArrayList<>();
-        List<DatabaseHelper.RoommateBalance> payers = new ArrayList<>();
-
+        Map<Long, String> names = new HashMap<>();
         for (DatabaseHelper.RoommateBalance balance : balanceResult.balances) {
-            if (balance.net > 0) receivers.add(balance);
-            else if (balance.net < 0) payers.add(balance);
-        }
-
-        if (!receivers.isEmpty()) {
-            sb.append("Should receive money:\n");
-            for (DatabaseHelper.RoommateBalance balance : receivers) {
-                sb.append("  ").append(balance.roommate.name).append(": $")
-                    .append(String.format("%.2f", balance.net)).append("\n");
-            }
-            sb.append("\n");
+            names.put(balance.roommate.id, balance.roommate.name);
         }
 
-        if (!payers.isEmpty()) {
-            sb.append("Owes money:\n");
-            for (DatabaseHelper.RoommateBalance balance : payers) {
-                sb.append("  ").append(balance.roommate.name).append(": $")
-                    .append(String.format("%.2f", -balance.net)).append("\n");
+        if (!balanceResult.transfers.isEmpty()) {
+            sb.append("Suggested payments:\n");
+            for (SettlementPlanner.Transfer transfer : balanceResult.transfers) {
+                sb.append("  ").append(names.get(transfer.fromId)).append(" pays ")
+                    .append(names.get(transfer.toId)).append(": $")
+                    .append(Money.format(transfer.amountCents)).append("\n");
             }
-        }
-
-        if (receivers.isEmpty() && payers.isEmpty()) {
+        } else {
             sb.append("All balances are settled!\n");
         }
 
@@ -159,5 +145,10 @@ public class BalanceActivity extends AppCompatActivity {
         binding.textStatus.setText(message);
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
-}
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        requests.cancelAll();
+    }
+}
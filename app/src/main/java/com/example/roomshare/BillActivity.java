@@ -8,7 +8,8 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.example.roomshare.data.Expense;
+import com.example.roomshare.data.ExpenseListItem;
+import com.example.roomshare.data.Money;
 import com.example.roomshare.data.RoomEntity;
 import com.example.roomshare.data.Roommate;
 import com.example.roomshare.databinding.ActivityBillBinding;
@@ -19,12 +20,14 @@ import java.util.List;
 public class BillActivity extends AppCompatActivity {
     private ActivityBillBinding binding;
     private DatabaseHelper dbHelper;
+    private final DbRequests requests = new DbRequests();
     private List<RoomEntity> rooms = new ArrayList<>();
     private List<Roommate> roommates = new ArrayList<>();
-    private List<Expense> expenses = new ArrayList<>();
+    private List<ExpenseListItem> expenses = new ArrayList<>();
     private ArrayAdapter<String> roomAdapter;
     private ArrayAdapter<String> payerAdapter;
     private Long currentRoomId = null;
+    private LiveQuery<DatabaseHelper.RoomData<List<ExpenseListItem>>> roomQuery;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -50,8 +53,7 @@ public class BillActivity extends AppCompatActivity {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 if (position >= 0 && position < rooms.size()) {
-                    currentRoomId = rooms.get(position).id;
-                    loadRoomData();
+                    selectRoom(rooms.get(position).id);
                 }
             }
 
@@ -64,7 +66,7 @@ public class BillActivity extends AppCompatActivity {
     }
 
     private void loadRooms() {
-        dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
+        requests.replace("rooms", dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
             @Override
             public void onSuccess(List<RoomEntity> result) {
                 runOnUiThread(() -> {
@@ -76,8 +78,7 @@ public class BillActivity extends AppCompatActivity {
                     roomAdapter.notifyDataSetChanged();
 
                     if (!rooms.isEmpty()) {
-                        currentRoomId = rooms.get(0).id;
-                        loadRoomData();
+                        selectRoom(rooms.get(0).id);
                     }
                 });
             }
@@ -86,41 +87,30 @@ public class BillActivity extends AppCompatActivity {
             public void onError(Exception e) {
                 runOnUiThread(() -> showStatus("Error loading rooms: " + e.getMessage()));
             }
-        });
+        }));
     }
 
-    private void loadRoomData() {
-        if (currentRoomId == null) return;
-
-        dbHelper.getRoommates(currentRoomId, new DatabaseHelper.Callback<List<Roommate>>() {
-            @Override
-            public void onSuccess(List<Roommate> result) {
-                runOnUiThread(() -> {
-                    roommates = result;
-                    updatePayerSpinner();
-                });
-            }
-
-            @Override
-            public void onError(Exception e) {
-                runOnUiThread(() -> showStatus("Error loading roommates: " + e.getMessage()));
-            }
-        });
+    // The spinner's initial selection and loadRooms both pick a room at startup; only a
+    // different room needs a new subscription.
+    private void selectRoom(long roomId) {
+        if (roomQuery != null && currentRoomId != null && currentRoomId == roomId) return;
+        currentRoomId = roomId;
+        observeRoomData();
+    }
 
-        dbHelper.getExpenses(currentRoomId, new DatabaseHelper.Callback<List<Expense>>() {
-            @Override
-            public void onSuccess(List<Expense> result) {
-                runOnUiThread(() -> {
-                    expenses = result;
-                    updateExpenseList();
-                });
-            }
+    private void observeRoomData() {
+        if (currentRoomId == null) return;
 
-            @Override
-            public void onError(Exception e) {
-                runOnUiThread(() -> showStatus("Error loading expenses: " + e.getMessage()));
-            }
-        });
+        if (roomQuery != null) {
+            roomQuery.removeObservers(this);
+        }
+        roomQuery = dbHelper.observeRoomExpenses(currentRoomId);
+        roomQuery.observe(this, result -> {
+            roommates = result.roommates;
+            expenses = result.items;
+            updatePayerSpinner();
+            updateExpenseList();
+        }, e -> showStatus("Error loading room: " + e.getMessage()));
     }
 
     private void updatePayerSpinner() {
@@ -154,15 +144,15 @@ public class BillActivity extends AppCompatActivity {
             return;
         }
 
-        double amount;
+        long amountCents;
         try {
-            amount = Double.parseDouble(amountStr);
+            amountCents = Money.parse(amountStr);
         } catch (NumberFormatException e) {
             showStatus("Invalid amount");
             return;
         }
 
-        if (amount <= 0) {
+        if (amountCents <= 0) {
             showStatus("Amount must be positive");
             return;
         }
@@ -175,34 +165,13 @@ public class BillActivity extends AppCompatActivity {
 
         long payerId = roommates.get(selectedPosition).id;
 
-        String splitCountStr = binding.editSplitCount.getText().toString().trim();
-        if (splitCountStr.isEmpty()) {
-            showStatus("Split count is required");
-            return;
-        }
-
-        int splitCount;
-        try {
-            splitCount = Integer.parseInt(splitCountStr);
-        } catch (NumberFormatException e) {
-            showStatus("Invalid split count");
-            return;
-        }
-
-        if (splitCount <= 0) {
-            showStatus("Split count must be positive");
-            return;
-        }
-
-        dbHelper.addExpense(name, amount, payerId, currentRoomId, splitCount, new DatabaseHelper.Callback<Long>() {
+        dbHelper.addExpense(name, amountCents, payerId, currentRoomId, new DatabaseHelper.Callback<Long>() {
             @Override
             public void onSuccess(Long result) {
                 runOnUiThread(() -> {
                     showStatus("Expense added successfully");
                     binding.editExpenseName.setText("");
                     binding.editExpenseAmount.setText("");
-                    binding.editSplitCount.setText("");
-                    loadRoomData();
                 });
             }
 
@@ -215,18 +184,18 @@ public class BillActivity extends AppCompatActivity {
 
     private void updateExpenseList() {
         StringBuilder text = new StringBuilder();
-        for (Expense expense : expenses) {
-            String payer = "Unknown";
-            for (Roommate roommate : roommates) {
-                if (roommate.id == expense.payerId) {
-                    payer = roommate.name;
-                    break;
+        for (ExpenseListItem expense : expenses) {
+            String payer = expense.payerName != null ? expense.payerName : "Unknown";
+            text.append(expense.name).append(" - $").append(Money.format(expense.amountCents))
+                .append(" paid by ").append(payer).append(" (Split ").append(expense.splitCount).append(" ways");
+            if (expense.minShareCents != null) {
+                text.append(", $").append(Money.format(expense.minShareCents));
+                if (!expense.minShareCents.equals(expense.maxShareCents)) {
+                    text.append("-$").append(Money.format(expense.maxShareCents));
                 }
+                text.append(" each");
             }
-            double perPerson = expense.amount / expense.splitCount;
-            text.append(expense.name).append(" - $").append(String.format("%.2f", expense.amount))
-                .append(" paid by ").append(payer).append(" (Split ").append(expense.splitCount)
-                .append(" ways, $").append(String.format("%.2f", perPerson)).append(" each)\n");
+            text.append(")\n");
         }
         binding.textExpensesList.setText(text.length() > 0 ? text.toString() : "No expenses added yet");
     }
@@ -235,5 +204,10 @@ public class BillActivity extends AppCompatActivity {
         binding.textStatus.setText(message);
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
-}
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        requests.cancelAll();
+    }
+}
@@ -8,7 +8,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.example.roomshare.data.Chore;
+import com.example.roomshare.data.ChoreListItem;
 import com.example.roomshare.data.RoomEntity;
 import com.example.roomshare.data.Roommate;
 import com.example.roomshare.databinding.ActivityChoreBinding;
@@ -19,13 +19,15 @@ import java.util.List;
 public class ChoreActivity extends AppCompatActivity {
     private ActivityChoreBinding binding;
     private DatabaseHelper dbHelper;
+    private final DbRequests requests = new DbRequests();
     private List<RoomEntity> rooms = new ArrayList<>();
     private List<Roommate> roommates = new ArrayList<>();
-    private List<Chore> chores = new ArrayList<>();
+    private List<ChoreListItem> chores = new ArrayList<>();
     private ArrayAdapter<String> roomAdapter;
     private ArrayAdapter<String> roommateAdapter;
     private ArrayAdapter<String> choreAdapter;
     private Long currentRoomId = null;
+    private LiveQuery<DatabaseHelper.RoomData<List<ChoreListItem>>> roomQuery;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -55,8 +57,7 @@ public class ChoreActivity extends AppCompatActivity {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 if (position >= 0 && position < rooms.size()) {
-                    currentRoomId = rooms.get(position).id;
-                    loadRoomData();
+                    selectRoom(rooms.get(position).id);
                 }
             }
 
@@ -70,7 +71,7 @@ public class ChoreActivity extends AppCompatActivity {
     }
 
     private void loadRooms() {
-        dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
+        requests.replace("rooms", dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
             @Override
             public void onSuccess(List<RoomEntity> result) {
                 runOnUiThread(() -> {
@@ -82,8 +83,7 @@ public class ChoreActivity extends AppCompatActivity {
                     roomAdapter.notifyDataSetChanged();
 
                     if (!rooms.isEmpty()) {
-                        currentRoomId = rooms.get(0).id;
-                        loadRoomData();
+                        selectRoom(rooms.get(0).id);
                     }
                 });
             }
@@ -92,41 +92,30 @@ public class ChoreActivity extends AppCompatActivity {
             public void onError(Exception e) {
                 runOnUiThread(() -> showStatus("Error loading rooms: " + e.getMessage()));
             }
-        });
+        }));
     }
 
-    private void loadRoomData() {
-        if (currentRoomId == null) return;
-
-        dbHelper.getRoommates(currentRoomId, new DatabaseHelper.Callback<List<Roommate>>() {
-            @Override
-            public void onSuccess(List<Roommate> result) {
-                runOnUiThread(() -> {
-                    roommates = result;
-                    updateRoommateSpinner();
-                });
-            }
-
-            @Override
-            public void onError(Exception e) {
-                runOnUiThread(() -> showStatus("Error loading roommates: " + e.getMessage()));
-            }
-        });
+    // The spinner's initial selection and loadRooms both pick a room at startup; only a
+    // different room needs a new subscription.
+    private void selectRoom(long roomId) {
+        if (roomQuery != null && currentRoomId != null && currentRoomId == roomId) return;
+        currentRoomId = roomId;
+        observeRoomData();
+    }
 
-        dbHelper.getChores(currentRoomId, new DatabaseHelper.Callback<List<Chore>>() {
-            @Override
-            public void onSuccess(List<Chore> result) {
-                runOnUiThread(() -> {
-                    chores = result;
-                    updateChoreList();
-                });
-            }
+    private void observeRoomData() {
+        if (currentRoomId == null) return;
 
-            @Override
-            public void onError(Exception e) {
-                runOnUiThread(() -> showStatus("Error loading chores: " + e.getMessage()));
-            }
-        });
+        if (roomQuery != null) {
+            roomQuery.removeObservers(this);
+        }
+        roomQuery = dbHelper.observeRoomChores(currentRoomId);
+        roomQuery.observe(this, result -> {
+            roommates = result.roommates;
+            chores = result.items;
+            updateRoommateSpinner();
+            updateChoreList();
+        }, e -> showStatus("Error loading room: " + e.getMessage()));
     }
 
     private void updateRoommateSpinner() {
@@ -161,7 +150,6 @@ public class ChoreActivity extends AppCompatActivity {
                     showStatus("Chore added successfully");
                     binding.editChoreName.setText("");
                     binding.spinnerAssignee.setSelection(0);
-                    loadRoomData();
                 });
             }
 
@@ -184,14 +172,13 @@ public class ChoreActivity extends AppCompatActivity {
             return;
         }
 
-        Chore selectedChore = chores.get(selectedPosition);
+        ChoreListItem selectedChore = chores.get(selectedPosition);
 
         dbHelper.markChoreComplete(selectedChore.id, currentRoomId, new DatabaseHelper.Callback<Void>() {
             @Override
             public void onSuccess(Void result) {
                 runOnUiThread(() -> {
                     showStatus("Chore marked as complete");
-                    loadRoomData();
                     binding.listChores.clearChoices();
                 });
             }
@@ -205,17 +192,9 @@ public class ChoreActivity extends AppCompatActivity {
 
     private void updateChoreList() {
         choreAdapter.clear();
-        for (Chore chore : chores) {
+        for (ChoreListItem chore : chores) {
             String status = (chore.completed == 1) ? "[X]" : "[ ]";
-            String assignedTo = "Unassigned";
-            if (chore.assignedToId != null) {
-                for (Roommate roommate : roommates) {
-                    if (roommate.id == chore.assignedToId) {
-                        assignedTo = roommate.name;
-                        break;
-                    }
-                }
-            }
+            String assignedTo = chore.assigneeName != null ? chore.assigneeName : "Unassigned";
             choreAdapter.add(status + " " + chore.name + " - Assigned to: " + assignedTo);
         }
         choreAdapter.notifyDataSetChanged();
@@ -225,5 +204,10 @@ public class ChoreActivity extends AppCompatActivity {
         binding.textStatus.setText(message);
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
-}
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        requests.cancelAll();
+    }
+}
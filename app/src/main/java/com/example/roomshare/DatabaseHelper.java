@@ -1,20 +1,40 @@
 package com.example.roomshare;
 
 import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.InvalidationTracker;
 
 import com.example.roomshare.data.*;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 public class DatabaseHelper {
+    static final int CHECKPOINT_INTERVAL = 256;
+    // Matches the framework's default WAL connection pool, so every reader gets its own
+    // connection. Fanned-out reads run on a pool one thread smaller while their reader waits.
+    static final int READ_PARALLELISM = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int ROOMS_PER_TASK = 8;
+    // Stays under SQLite's default limit of 999 bound parameters per statement
+    private static final int MAX_BIND_ARGS = 500;
+    static final long CACHE_BUDGET_BYTES = 512 * 1024;
+
     private static volatile DatabaseHelper INSTANCE;
     private final AppDatabase database;
     private final RoomDao roomDao;
@@ -22,17 +42,51 @@ public class DatabaseHelper {
     private final BillDao billDao;
     private final ExpenseDao expenseDao;
     private final ChoreDao choreDao;
-    private Long currentRoomId;
-    private final ExecutorService executorService;
+    private final BalanceDao balanceDao;
+    private final ExpenseShareDao expenseShareDao;
+    private final BalanceCheckpointDao checkpointDao;
+    private final HistorySearchDao historySearchDao;
+    private final HistoryDao historyDao;
+    private final RoomVersionDao roomVersionDao;
+    private final RoomStatsDao roomStatsDao;
+    private volatile Long currentRoomId;
+    private final DbScheduler scheduler;
+    private final DbCache cache = new DbCache(CACHE_BUDGET_BYTES);
+    private final ReportCache reportCache = new ReportCache();
 
     private DatabaseHelper(Context context) {
-        database = AppDatabase.getDatabase(context);
+        this(AppDatabase.getDatabase(context));
+    }
+
+    DatabaseHelper(AppDatabase database) {
+        this(database, DbScheduler.split(database::runInTransaction, READ_PARALLELISM));
+    }
+
+    DatabaseHelper(AppDatabase database, DbScheduler scheduler) {
+        this.database = database;
+        this.scheduler = scheduler;
         roomDao = database.roomDao();
         roommateDao = database.roommateDao();
         billDao = database.billDao();
         expenseDao = database.expenseDao();
         choreDao = database.choreDao();
-        executorService = Executors.newSingleThreadExecutor();
+        balanceDao = database.balanceDao();
+        expenseShareDao = database.expenseShareDao();
+        checkpointDao = database.balanceCheckpointDao();
+        historySearchDao = database.historySearchDao();
+        historyDao = database.historyDao();
+        roomVersionDao = database.roomVersionDao();
+        roomStatsDao = database.roomStatsDao();
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("rooms", "roommates", "bills") {
+            @Override
+            public void onInvalidated(Set<String> tables) {
+                cache.invalidate(tables);
+            }
+        });
+        SlowQueryLog slowQueryLog = database.getSlowQueryLog();
+        if (slowQueryLog != null) {
+            scheduler.setWorkHooks(slowQueryLog::beginWork, slowQueryLog::endWork);
+        }
     }
 
     public static DatabaseHelper getInstance(Context context) {
@@ -46,27 +100,74 @@ public class DatabaseHelper {
         return INSTANCE;
     }
 
-    public void getAllRooms(Callback<List<RoomEntity>> callback) {
-        executorService.execute(() -> {
+    public DbRequest getAllRooms(Callback<List<RoomEntity>> callback) {
+        return cachedRead("rooms", "getAllRooms", () -> roomDao.getAllRooms(),
+                room -> 32 + DbCache.sizeOf(room.name), callback);
+    }
+
+    private <T> DbRequest cachedRead(String table, String key, Callable<List<T>> query, ToLongFunction<T> weigher,
+                                     Callback<List<T>> callback) {
+        List<T> cached = cache.get(key);
+        if (cached != null) {
             try {
-                List<RoomEntity> result = roomDao.getAllRooms();
-                callback.onSuccess(result);
+                callback.onSuccess(cached);
             } catch (Exception e) {
                 callback.onError(e);
             }
-        });
+            return new DbRequest();
+        }
+        long generation = cache.generation(table);
+        return scheduler.read(DbPriority.INTERACTIVE, key, () -> {
+            List<T> rows = Collections.unmodifiableList(query.call());
+            long weight = 64;
+            for (T row : rows) {
+                weight += weigher.applyAsLong(row);
+            }
+            cache.put(table, key, rows, weight, generation);
+            return rows;
+        }, callback);
     }
 
-    public void createOrGetRoom(String name, Callback<Long> callback) {
-        executorService.execute(() -> {
-            try {
-                RoomEntity existing = roomDao.getRoomByName(name);
-                long result = (existing != null) ? existing.id : roomDao.insertRoom(new RoomEntity(name));
+    // Drops cached reads of the tables a write touched before its caller hears back, so a
+    // reload from the callback cannot beat the invalidation tracker to a stale entry
+    private <T> Callback<T> invalidating(Callback<T> callback, String... tables) {
+        return new Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                cache.invalidate(Arrays.asList(tables));
                 callback.onSuccess(result);
-            } catch (Exception e) {
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cache.invalidate(Arrays.asList(tables));
                 callback.onError(e);
             }
-        });
+        };
+    }
+
+    // Write bodies may be rolled back with their batch and run again, so they only touch the
+    // database; in-memory state is updated here once the write has committed.
+    private static <T> Callback<T> afterCommit(Callback<T> callback, Consumer<T> effect) {
+        return new Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                effect.accept(result);
+                callback.onSuccess(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+        };
+    }
+
+    public DbRequest createOrGetRoom(String name, Callback<Long> callback) {
+        return scheduler.write("createOrGetRoom", () -> {
+            RoomEntity existing = roomDao.getRoomByName(name);
+            return (existing != null) ? existing.id : roomDao.insertRoom(new RoomEntity(name));
+        }, invalidating(callback, "rooms"));
     }
 
     public void setCurrentRoom(long roomId) {
@@ -77,271 +178,767 @@ public class DatabaseHelper {
         return currentRoomId;
     }
 
-    public void addRoommate(String name, String email, String phone, long roomId, Callback<Long> callback) {
-        executorService.execute(() -> {
-            try {
-                List<Roommate> existing = roommateDao.getRoommateByName(name);
-                for (Roommate r : existing) {
-                    if (r.roomId != roomId) {
-                        callback.onError(new Exception("Person cannot be in multiple rooms"));
-                        return;
-                    }
+    LatencyHistogram queueWait(DbPriority priority) {
+        return scheduler.queueWait(priority);
+    }
+
+    public DbMetrics metrics() {
+        return scheduler.metrics();
+    }
+
+    public LiveQuery<RoomData<List<Bill>>> observeRoomBills(long roomId) {
+        return observeRoomData(roomId, callback -> getBills(roomId, callback), "roommates", "bills");
+    }
+
+    public LiveQuery<RoomData<List<ExpenseListItem>>> observeRoomExpenses(long roomId) {
+        return observeRoomData(roomId, callback -> getExpenseList(roomId, callback), "roommates", "expenses");
+    }
+
+    public LiveQuery<RoomData<List<ChoreListItem>>> observeRoomChores(long roomId) {
+        return observeRoomData(roomId, callback -> getChoreList(roomId, callback), "roommates", "chores");
+    }
+
+    // Starts the roommates read and the item read together and delivers them as one value
+    // once both have loaded, so a screen redraws once per change instead of once per query.
+    private <T> LiveQuery<RoomData<T>> observeRoomData(long roomId, Function<Callback<T>, DbRequest> items,
+                                                       String... tables) {
+        return observe(callback -> {
+            DbFuture<List<Roommate>> roommatesLoad = DbFuture.of(loaded -> getRoommates(roomId, loaded));
+            DbFuture<T> itemsLoad = DbFuture.of(items);
+            DbRequest load = DbRequest.of(roommatesLoad, itemsLoad);
+            roommatesLoad.thenCombine(itemsLoad, RoomData::new).whenComplete((result, error) -> {
+                if (load.isCancelled()) return;
+                if (error != null) {
+                    Throwable cause = DbFuture.cause(error);
+                    callback.onError(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+                } else {
+                    callback.onSuccess(result);
                 }
-                Roommate roommate = new Roommate(name, email, phone, roomId);
-                long result = roommateDao.insertRoommate(roommate);
-                callback.onSuccess(result);
-            } catch (Exception e) {
-                callback.onError(e);
-            }
-        });
+            });
+            return load;
+        }, tables);
     }
 
-    public void getRoommates(long roomId, Callback<List<Roommate>> callback) {
-        executorService.execute(() -> {
-            try {
-                List<Roommate> result = roommateDao.getRoommatesByRoom(roomId);
-                callback.onSuccess(result);
-            } catch (Exception e) {
-                callback.onError(e);
-            }
-        });
+    public LiveQuery<BalanceResult> observeBalance(long roomId) {
+        return observe(callback -> calculateBalance(roomId, callback), "roommates", "roommate_balances");
     }
 
-    public void addBill(String name, double amount, long roomId, Callback<Long> callback) {
-        executorService.execute(() -> {
-            try {
-                Bill bill = new Bill(name, amount, roomId);
-                long result = billDao.insertBill(bill);
-                callback.onSuccess(result);
-            } catch (Exception e) {
-                callback.onError(e);
+    /** Only the first page is live; later pages are fetched on demand with {@link #getHistoryPage}. */
+    // Every room's chore, expense and roommate writes land in room_versions, so a write
+    // elsewhere only costs a counter lookup: the page is re-read, and the screen's scroll
+    // reset, when this room's counters have moved.
+    public LiveQuery<HistoryPage> observeHistory(long roomId, String filterText, int pageSize) {
+        String match = HistorySearch.matchQuery(filterText);
+        AtomicReference<VersionedPage> shown = new AtomicReference<>();
+        return observe(callback -> scheduler.read(DbPriority.INTERACTIVE,
+                "observeHistory:" + roomId + ":" + filterText + ":" + pageSize, () -> {
+            long version = changeCount(roomVersionDao.getVersion(roomId));
+            VersionedPage previous = shown.get();
+            if (previous != null && previous.version == version) {
+                return previous.page;
             }
-        });
+            HistoryPage page = readHistoryPage(roomId, match, HistoryKey.FIRST, pageSize);
+            shown.set(new VersionedPage(version, page));
+            return page;
+        }, callback), "room_versions");
     }
 
-    public void getBills(long roomId, Callback<List<Bill>> callback) {
-        executorService.execute(() -> {
-            try {
-                List<Bill> result = billDao.getBillsByRoom(roomId);
-                callback.onSuccess(result);
-            } catch (Exception e) {
-                callback.onError(e);
-            }
-        });
+    // The counters only ever grow, so their sum moves whenever any of them does
+    private static long changeCount(RoomVersion version) {
+        return version == null ? 0 : version.chores + version.expenses + version.roommates;
     }
 
-    public void addExpense(String name, double amount, long payerId, long roomId, int splitCount, Callback<Long> callback) {
-        executorService.execute(() -> {
-            try {
-                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-                String date = dateFormat.format(new Date());
-                Expense expense = new Expense(name, amount, payerId, roomId, splitCount, date);
-                long result = expenseDao.insertExpense(expense);
-                callback.onSuccess(result);
-            } catch (Exception e) {
-                callback.onError(e);
-            }
-        });
+    private static final class VersionedPage {
+        final long version;
+        final HistoryPage page;
+
+        VersionedPage(long version, HistoryPage page) {
+            this.version = version;
+            this.page = page;
+        }
     }
 
-    public void getExpenses(long roomId, Callback<List<Expense>> callback) {
-        executorService.execute(() -> {
-            try {
-                List<Expense> result = expenseDao.getExpensesByRoom(roomId);
-                callback.onSuccess(result);
-            } catch (Exception e) {
-                callback.onError(e);
+    public LiveQuery<RoomStats> observeRoomStats(long roomId) {
+        return observe(callback -> getRoomStats(roomId, callback), "room_stats");
+    }
+
+    public LiveQuery<HistoryPage> observeSearch(Long roomId, String text, int limit) {
+        return observe(callback -> searchHistory(roomId, text, limit, callback), "chores", "expenses", "roommates");
+    }
+
+    private <T> LiveQuery<T> observe(Function<Callback<T>, DbRequest> query, String... tables) {
+        return new LiveQuery<>(database.getInvalidationTracker(), tables, query);
+    }
+
+    public DbCache cache() {
+        return cache;
+    }
+
+    public ReportCache reportCache() {
+        return reportCache;
+    }
+
+    public String dumpMetrics() {
+        StringBuilder out = new StringBuilder(scheduler.dumpMetrics());
+        cache.dump(out);
+        reportCache.dump(out);
+        SlowQueryLog slowQueryLog = database.getSlowQueryLog();
+        if (slowQueryLog != null) {
+            out.append('\n').append(slowQueryLog.dump());
+        }
+        return out.toString();
+    }
+
+    public DbRequest addRoommate(String name, String email, String phone, long roomId, Callback<Long> callback) {
+        return scheduler.write("addRoommate", () -> {
+            if (hasNamesInOtherRooms(Collections.singletonList(name), roomId)) {
+                throw new Exception("Person cannot be in multiple rooms");
             }
-        });
+            long id = roommateDao.insertRoommate(new Roommate(name, email, phone, roomId));
+            balanceDao.upsertBalance(new BalanceEntry(id, roomId));
+            return id;
+        }, invalidating(callback, "roommates"));
     }
 
-    public void addChore(String name, Long assignedToId, long roomId, Callback<Long> callback) {
-        executorService.execute(() -> {
-            try {
-                SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-                String date = dateFormat.format(new Date());
-                Chore chore = new Chore(name, assignedToId, roomId, 0, date);
-                long result = choreDao.insertChore(chore);
-                callback.onSuccess(result);
-            } catch (Exception e) {
-                callback.onError(e);
+    public DbRequest addRoommates(List<Roommate> roommates, Callback<List<Long>> callback) {
+        return scheduler.write("addRoommates", () -> {
+            Map<String, Long> roomByName = new HashMap<>();
+            Map<Long, List<String>> namesByRoom = new HashMap<>();
+            for (Roommate roommate : roommates) {
+                Long other = roomByName.putIfAbsent(roommate.name, roommate.roomId);
+                if (other != null && other != roommate.roomId) {
+                    throw new Exception("Person cannot be in multiple rooms");
+                }
+                namesByRoom.computeIfAbsent(roommate.roomId, k -> new ArrayList<>()).add(roommate.name);
             }
-        });
+            for (Map.Entry<Long, List<String>> entry : namesByRoom.entrySet()) {
+                if (hasNamesInOtherRooms(entry.getValue(), entry.getKey())) {
+                    throw new Exception("Person cannot be in multiple rooms");
+                }
+            }
+
+            List<Long> ids = roommateDao.insertRoommates(roommates);
+            List<BalanceEntry> entries = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                entries.add(new BalanceEntry(ids.get(i), roommates.get(i).roomId));
+            }
+            balanceDao.upsertBalances(entries);
+            return ids;
+        }, invalidating(callback, "roommates"));
     }
 
-    public void getChores(long roomId, Callback<List<Chore>> callback) {
-        executorService.execute(() -> {
-            try {
-                List<Chore> result = choreDao.getChoresByRoom(roomId);
-                callback.onSuccess(result);
-            } catch (Exception e) {
-                callback.onError(e);
+    private boolean hasNamesInOtherRooms(List<String> names, long roomId) {
+        for (int from = 0; from < names.size(); from += MAX_BIND_ARGS) {
+            List<String> chunk = names.subList(from, Math.min(names.size(), from + MAX_BIND_ARGS));
+            if (!roommateDao.findNamesInOtherRooms(chunk, roomId).isEmpty()) {
+                return true;
             }
-        });
+        }
+        return false;
     }
 
-    public void markChoreComplete(long choreId, long roomId, Callback<Void> callback) {
-        executorService.execute(() -> {
-            try {
-                Chore chore = choreDao.getChoreById(choreId, roomId);
-                if (chore != null) {
-                    chore.completed = 1;
-                    choreDao.updateChore(chore);
+    public DbRequest getRoommates(long roomId, Callback<List<Roommate>> callback) {
+        return cachedRead("roommates", "getRoommates:" + roomId, () -> roommateDao.getRoommatesByRoom(roomId),
+                roommate -> 48 + DbCache.sizeOf(roommate.name) + DbCache.sizeOf(roommate.email)
+                        + DbCache.sizeOf(roommate.phone), callback);
+    }
+
+    public DbRequest addBill(String name, long amountCents, long roomId, Callback<Long> callback) {
+        return scheduler.write("addBill", () -> billDao.insertBill(new Bill(name, amountCents, roomId)), invalidating(callback, "bills"));
+    }
+
+    public DbRequest addBills(List<Bill> bills, Callback<List<Long>> callback) {
+        return scheduler.write("addBills", () -> billDao.insertBills(bills), invalidating(callback, "bills"));
+    }
+
+    public DbRequest getBills(long roomId, Callback<List<Bill>> callback) {
+        return cachedRead("bills", "getBills:" + roomId, () -> billDao.getBillsByRoom(roomId),
+                bill -> 48 + DbCache.sizeOf(bill.name), callback);
+    }
+
+    public DbRequest addExpense(String name, long amountCents, long payerId, long roomId, Callback<Long> callback) {
+        return scheduler.write("addExpense", () -> {
+            List<Long> roommateIds = roommateDao.getRoommateIdsByRoom(roomId);
+            requirePayerInRoom(payerId, roommateIds);
+            long[] participantIds = toArray(roommateIds);
+            long[] shares = SplitMode.equalShares(amountCents, participantIds.length);
+            return insertExpense(name, amountCents, payerId, roomId, participantIds.length, participantIds, shares);
+        }, callback);
+    }
+
+    public DbRequest addExpense(String name, long amountCents, long payerId, long roomId, SplitMode mode,
+                           long[] participantIds, long[] values, Callback<Long> callback) {
+        return scheduler.write("addExpense", () -> {
+            if (participantIds.length == 0) {
+                throw new IllegalArgumentException("An expense needs at least one participant");
+            }
+            if (mode != SplitMode.EQUAL && (values == null || values.length != participantIds.length)) {
+                throw new IllegalArgumentException("Every participant needs a share value");
+            }
+            long[] shares = mode == SplitMode.EQUAL
+                    ? SplitMode.equalShares(amountCents, participantIds.length)
+                    : mode.shares(amountCents, values);
+            List<Long> roommateIds = roommateDao.getRoommateIdsByRoom(roomId);
+            requirePayerInRoom(payerId, roommateIds);
+            Set<Long> seen = new HashSet<>();
+            for (long participantId : participantIds) {
+                if (!roommateIds.contains(participantId)) {
+                    throw new IllegalArgumentException("Participant is not in this room");
+                }
+                if (!seen.add(participantId)) {
+                    throw new IllegalArgumentException("A participant is listed more than once");
                 }
-                callback.onSuccess(null);
-            } catch (Exception e) {
-                callback.onError(e);
             }
-        });
+            return insertExpense(name, amountCents, payerId, roomId, participantIds.length, participantIds, shares);
+        }, callback);
     }
 
-    public void calculateBalance(long roomId, Callback<BalanceResult> callback) {
-        executorService.execute(() -> {
-            try {
-                List<Roommate> roommates = roommateDao.getRoommatesByRoom(roomId);
-                List<Expense> expenses = expenseDao.getExpensesByRoom(roomId);
+    private static void requirePayerInRoom(long payerId, List<Long> roommateIds) {
+        if (!roommateIds.contains(payerId)) {
+            throw new IllegalArgumentException("Payer is not in this room");
+        }
+    }
 
-                Map<Long, Double> paidMap = new HashMap<>();
-                Map<Long, Double> owedMap = new HashMap<>();
+    private long insertExpense(String name, long amountCents, long payerId, long roomId, int splitCount,
+                               long[] participantIds, long[] shares) {
+        long id = expenseDao.insertExpense(new Expense(name, amountCents, payerId, roomId, splitCount, timestamp()));
 
-                for (Roommate roommate : roommates) {
-                    paidMap.put(roommate.id, 0.0);
-                    owedMap.put(roommate.id, 0.0);
-                }
+        List<ExpenseShare> rows = new ArrayList<>();
+        for (int i = 0; i < participantIds.length; i++) {
+            rows.add(new ExpenseShare(id, participantIds[i], shares[i]));
+            balanceDao.addOwed(participantIds[i], shares[i]);
+        }
+        expenseShareDao.insertShares(rows);
+        balanceDao.addPaid(payerId, amountCents);
 
-                for (Expense expense : expenses) {
-                    double perPerson = expense.amount / expense.splitCount;
-                    paidMap.put(expense.payerId, paidMap.get(expense.payerId) + expense.amount);
-                    for (Roommate roommate : roommates) {
-                        owedMap.put(roommate.id, owedMap.get(roommate.id) + perPerson);
-                    }
+        maybeCheckpoint(roomId);
+        return id;
+    }
+
+    // Each expense is split evenly across its room's current roommates, as with the
+    // participant-less overload of addExpense. Ledger updates are summed per roommate first.
+    public DbRequest addExpenses(List<Expense> expenses, Callback<List<Long>> callback) {
+        return scheduler.write("addExpenses", () -> {
+            String now = timestamp();
+            Map<Long, long[]> participantsByRoom = new HashMap<>();
+            for (Expense expense : expenses) {
+                if (expense.date == null) {
+                    expense.date = now;
                 }
+                long[] roommateIds = participantsByRoom.computeIfAbsent(expense.roomId,
+                        roomId -> toArray(roommateDao.getRoommateIdsByRoom(roomId)));
+                if (Arrays.stream(roommateIds).noneMatch(id -> id == expense.payerId)) {
+                    throw new IllegalArgumentException("Payer is not in this room");
+                }
+            }
+            List<Long> ids = expenseDao.insertExpenses(expenses);
 
-                List<RoommateBalance> balances = new ArrayList<>();
-                for (Roommate roommate : roommates) {
-                    double paid = paidMap.get(roommate.id);
-                    double owed = owedMap.get(roommate.id);
-                    double net = paid - owed;
-                    balances.add(new RoommateBalance(roommate, paid, owed, net));
+            Map<Long, Long> paid = new HashMap<>();
+            Map<Long, Long> owed = new HashMap<>();
+            List<ExpenseShare> rows = new ArrayList<>();
+            for (int i = 0; i < expenses.size(); i++) {
+                Expense expense = expenses.get(i);
+                long[] participantIds = participantsByRoom.get(expense.roomId);
+                long[] shares = SplitMode.equalShares(expense.amountCents, participantIds.length);
+                for (int p = 0; p < participantIds.length; p++) {
+                    rows.add(new ExpenseShare(ids.get(i), participantIds[p], shares[p]));
+                    owed.merge(participantIds[p], shares[p], Long::sum);
                 }
+                paid.merge(expense.payerId, expense.amountCents, Long::sum);
+            }
+            expenseShareDao.insertShares(rows);
+            for (Map.Entry<Long, Long> entry : paid.entrySet()) {
+                balanceDao.addPaid(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<Long, Long> entry : owed.entrySet()) {
+                balanceDao.addOwed(entry.getKey(), entry.getValue());
+            }
+            for (long roomId : participantsByRoom.keySet()) {
+                maybeCheckpoint(roomId);
+            }
+            return ids;
+        }, callback);
+    }
 
-                callback.onSuccess(new BalanceResult(balances));
-            } catch (Exception e) {
-                callback.onError(e);
+    private void maybeCheckpoint(long roomId) {
+        if (expenseDao.countExpensesSince(roomId, checkpointDao.getWatermark(roomId)) >= CHECKPOINT_INTERVAL) {
+            writeCheckpoint(roomId);
+        }
+    }
+
+    private static String timestamp() {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date());
+    }
+
+    private void writeCheckpoint(long roomId) {
+        long watermark = expenseDao.getLatestExpenseId(roomId);
+        List<BalanceCheckpoint> checkpoints = new ArrayList<>();
+        for (BalanceEntry entry : rebuildLedger(roomId).values()) {
+            checkpoints.add(new BalanceCheckpoint(entry.roommateId, roomId, watermark,
+                    entry.paidCents, entry.owedCents));
+        }
+        checkpointDao.deleteCheckpoints(roomId);
+        checkpointDao.insertCheckpoints(checkpoints);
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    public DbRequest deleteExpense(long expenseId, Callback<Void> callback) {
+        return scheduler.write("deleteExpense", () -> {
+            Expense expense = expenseDao.getExpenseById(expenseId);
+            if (expense != null) {
+                expenseDao.deleteExpense(expense);
+                replaceLedger(expense.roomId, rebuildLedger(expense.roomId));
             }
-        });
+            return null;
+        }, callback);
     }
 
-    public void getHistory(long roomId, String filterText, Callback<List<HistoryItem>> callback) {
-        executorService.execute(() -> {
-            try {
-                List<Chore> chores = choreDao.getChoresByRoom(roomId);
-                List<Expense> expenses = expenseDao.getExpensesByRoom(roomId);
-                List<Roommate> roommates = roommateDao.getRoommatesByRoom(roomId);
+    public DbRequest getExpenses(long roomId, Callback<List<Expense>> callback) {
+        return scheduler.read(DbPriority.INTERACTIVE, "getExpenses:" + roomId, () -> expenseDao.getExpensesByRoom(roomId), callback);
+    }
 
-                Map<Long, String> roommateMap = new HashMap<>();
-                for (Roommate roommate : roommates) {
-                    roommateMap.put(roommate.id, roommate.name);
-                }
+    public DbRequest getExpenseList(long roomId, Callback<List<ExpenseListItem>> callback) {
+        return scheduler.read(DbPriority.INTERACTIVE, "getExpenseList:" + roomId, () -> expenseDao.getExpenseListItems(roomId), callback);
+    }
 
-                List<HistoryItem> items = new ArrayList<>();
+    public DbRequest addChore(String name, Long assignedToId, long roomId, Callback<Long> callback) {
+        return scheduler.write("addChore", () -> {
+            return choreDao.insertChore(new Chore(name, assignedToId, roomId, 0, timestamp()));
+        }, callback);
+    }
 
-                for (Chore chore : chores) {
-                    String assignedTo = (chore.assignedToId != null && roommateMap.containsKey(chore.assignedToId))
-                            ? roommateMap.get(chore.assignedToId) : "Unassigned";
-                    items.add(new HistoryItem.ChoreItem(chore, assignedTo));
+    public DbRequest addChores(List<Chore> chores, Callback<List<Long>> callback) {
+        return scheduler.write("addChores", () -> {
+            String now = timestamp();
+            for (Chore chore : chores) {
+                if (chore.date == null) {
+                    chore.date = now;
                 }
+            }
+            return choreDao.insertChores(chores);
+        }, callback);
+    }
 
-                for (Expense expense : expenses) {
-                    String payer = roommateMap.getOrDefault(expense.payerId, "Unknown");
-                    items.add(new HistoryItem.ExpenseItem(expense, payer));
-                }
+    public DbRequest getChores(long roomId, Callback<List<Chore>> callback) {
+        return scheduler.read(DbPriority.INTERACTIVE, "getChores:" + roomId, () -> choreDao.getChoresByRoom(roomId), callback);
+    }
+
+    public DbRequest getChoreList(long roomId, Callback<List<ChoreListItem>> callback) {
+        return scheduler.read(DbPriority.INTERACTIVE, "getChoreList:" + roomId, () -> choreDao.getChoreListItems(roomId), callback);
+    }
+
+    public DbRequest markChoreComplete(long choreId, long roomId, Callback<Void> callback) {
+        return scheduler.write("markChoreComplete", () -> {
+            Chore chore = choreDao.getChoreById(choreId, roomId);
+            if (chore != null) {
+                chore.completed = 1;
+                choreDao.updateChore(chore);
+            }
+            return null;
+        }, callback);
+    }
 
-                // Filter if needed
-                if (filterText != null && !filterText.trim().isEmpty()) {
-                    String filter = filterText.toLowerCase();
-                    List<HistoryItem> filtered = new ArrayList<>();
-                    for (HistoryItem item : items) {
-                        if (item instanceof HistoryItem.ChoreItem) {
-                            HistoryItem.ChoreItem choreItem = (HistoryItem.ChoreItem) item;
-                            if (choreItem.chore.name.toLowerCase().contains(filter) ||
-                                choreItem.assignedTo.toLowerCase().contains(filter)) {
-                                filtered.add(item);
-                            }
-                        } else if (item instanceof HistoryItem.ExpenseItem) {
-                            HistoryItem.ExpenseItem expenseItem = (HistoryItem.ExpenseItem) item;
-                            if (expenseItem.expense.name.toLowerCase().contains(filter) ||
-                                expenseItem.payer.toLowerCase().contains(filter)) {
-                                filtered.add(item);
-                            }
-                        }
+    public DbRequest calculateBalance(long roomId, Callback<BalanceResult> callback) {
+        return scheduler.read(DbPriority.NORMAL, "calculateBalance:" + roomId, () -> computeBalance(roomId, true), callback);
+    }
+
+    public DbRequest getAllRoomBalances(Callback<List<RoomBalanceSummary>> callback) {
+        return scheduler.read(DbPriority.BACKGROUND, "getAllRoomBalances", () -> {
+            List<RoomEntity> rooms = roomDao.getAllRooms();
+            return scheduler.fork(new RoomBalanceTask(rooms, 0, rooms.size()));
+        }, callback);
+    }
+
+    // Reads the roommates and their ledger rows in a single statement rather than a
+    // transaction, so concurrent callers each stay on their own WAL read connection.
+    // The exact settlement solver is only worth its 2^n tables for the one room on screen;
+    // the all-rooms overview plans greedily.
+    private BalanceResult computeBalance(long roomId, boolean exactSettlement) {
+        List<RoommateBalance> balances = new ArrayList<>();
+        for (RoommateLedgerRow row : balanceDao.getLedgerRows(roomId)) {
+            balances.add(new RoommateBalance(row.roommate, row.paidCents, row.owedCents, row.netCents));
+        }
+        return new BalanceResult(balances, planSettlement(balances, exactSettlement));
+    }
+
+    private final class RoomBalanceTask extends RecursiveTask<List<RoomBalanceSummary>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<RoomEntity> rooms;
+        private final int from;
+        private final int to;
+
+        RoomBalanceTask(List<RoomEntity> rooms, int from, int to) {
+            this.rooms = rooms;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<RoomBalanceSummary> compute() {
+            if (to - from <= ROOMS_PER_TASK) {
+                scheduler.beforeWork();
+                try {
+                    List<RoomBalanceSummary> summaries = new ArrayList<>();
+                    for (int i = from; i < to; i++) {
+                        RoomEntity room = rooms.get(i);
+                        summaries.add(new RoomBalanceSummary(room, computeBalance(room.id, false)));
                     }
-                    items = filtered;
+                    return summaries;
+                } finally {
+                    scheduler.afterWork();
                 }
-
-                callback.onSuccess(items);
-            } catch (Exception e) {
-                callback.onError(e);
             }
-        });
+            int mid = (from + to) >>> 1;
+            RoomBalanceTask right = new RoomBalanceTask(rooms, mid, to);
+            right.fork();
+            List<RoomBalanceSummary> summaries = new RoomBalanceTask(rooms, from, mid).compute();
+            summaries.addAll(right.join());
+            return summaries;
+        }
     }
 
-    public void generateReport(long roomId, Callback<Report> callback) {
-        executorService.execute(() -> {
-            try {
-                List<Chore> chores = choreDao.getChoresByRoom(roomId);
-                List<Expense> expenses = expenseDao.getExpensesByRoom(roomId);
-                List<Roommate> roommates = roommateDao.getRoommatesByRoom(roomId);
-
-                int totalChores = chores.size();
-                int completedChores = 0;
-                for (Chore chore : chores) {
-                    if (chore.completed == 1) completedChores++;
+    public DbRequest checkBalanceLedger(long roomId, boolean repair, Callback<LedgerCheckResult> callback) {
+        return scheduler.write("checkBalanceLedger", () -> {
+            List<Roommate> roommates = roommateDao.getRoommatesByRoom(roomId);
+            Map<Long, BalanceEntry> expected = replayLedger(roomId);
+            Map<Long, BalanceEntry> actual = new HashMap<>();
+            for (BalanceEntry entry : balanceDao.getBalancesByRoom(roomId)) {
+                actual.put(entry.roommateId, entry);
+            }
+
+            List<LedgerDrift> drifts = new ArrayList<>();
+            for (Roommate roommate : roommates) {
+                BalanceEntry want = expected.get(roommate.id);
+                BalanceEntry have = actual.get(roommate.id);
+                if (have == null || want.paidCents != have.paidCents || want.owedCents != have.owedCents
+                        || want.netCents != have.netCents) {
+                    drifts.add(new LedgerDrift(roommate, want, have));
                 }
-                int pendingChores = totalChores - completedChores;
+            }
 
-                int totalExpenses = expenses.size();
-                double totalAmount = 0;
-                for (Expense expense : expenses) {
-                    totalAmount += expense.amount;
+            if (repair && !drifts.isEmpty()) {
+                replaceLedger(roomId, expected);
+            }
+            return new LedgerCheckResult(drifts, repair && !drifts.isEmpty());
+        }, callback);
+    }
+
+    private static List<SettlementPlanner.Transfer> planSettlement(List<RoommateBalance> balances, boolean exact) {
+        long[] ids = new long[balances.size()];
+        long[] nets = new long[balances.size()];
+        for (int i = 0; i < ids.length; i++) {
+            RoommateBalance balance = balances.get(i);
+            ids[i] = balance.roommate.id;
+            nets[i] = balance.netCents;
+        }
+        return SettlementPlanner.plan(ids, nets, exact);
+    }
+
+    // Starts from the room's latest checkpoint, if any, and only aggregates the expenses
+    // added after its watermark.
+    private Map<Long, BalanceEntry> rebuildLedger(long roomId) {
+        BalanceAccumulator accumulator = new BalanceAccumulator(
+                RoommateIndex.of(roommateDao.getRoommateIdsByRoom(roomId)));
+        long watermark = 0;
+        for (BalanceCheckpoint checkpoint : checkpointDao.getCheckpoints(roomId)) {
+            accumulator.addPaid(checkpoint.roommateId, checkpoint.paidCents);
+            accumulator.addOwed(checkpoint.roommateId, checkpoint.owedCents);
+            watermark = checkpoint.watermark;
+        }
+        for (RoommateTotal total : expenseDao.getPaidTotalsSince(roomId, watermark)) {
+            accumulator.addPaid(total.roommateId, total.totalCents);
+        }
+        for (RoommateTotal total : expenseShareDao.getOwedTotalsSince(roomId, watermark)) {
+            accumulator.addOwed(total.roommateId, total.totalCents);
+        }
+        return toLedger(roomId, accumulator);
+    }
+
+    // Walks every expense and share row instead of trusting the aggregates, with memory
+    // bounded by one cursor window however large the room is.
+    private Map<Long, BalanceEntry> replayLedger(long roomId) {
+        BalanceAccumulator accumulator = new BalanceAccumulator(
+                RoommateIndex.of(roommateDao.getRoommateIdsByRoom(roomId)));
+        try (Cursor paid = expenseDao.streamPaid(roomId)) {
+            CursorAccumulators.addPaid(paid, accumulator);
+        }
+        try (Cursor owed = expenseShareDao.streamOwed(roomId)) {
+            CursorAccumulators.addOwed(owed, accumulator);
+        }
+        return toLedger(roomId, accumulator);
+    }
+
+    private static Map<Long, BalanceEntry> toLedger(long roomId, BalanceAccumulator accumulator) {
+        RoommateIndex index = accumulator.index();
+        Map<Long, BalanceEntry> ledger = new HashMap<>();
+        for (int slot = 0; slot < index.size(); slot++) {
+            long roommateId = index.idAt(slot);
+            ledger.put(roommateId, new BalanceEntry(roommateId, roomId,
+                    accumulator.paid(slot), accumulator.owed(slot), accumulator.net(slot)));
+        }
+        return ledger;
+    }
+
+    private void replaceLedger(long roomId, Map<Long, BalanceEntry> ledger) {
+        balanceDao.deleteBalancesByRoom(roomId);
+        balanceDao.upsertBalances(new ArrayList<>(ledger.values()));
+    }
+
+    /**
+     * Up to {@code limit} history items strictly after {@code after}, newest first. The page
+     * comes from one keyset query over both tables, so it costs the same no matter how deep
+     * into the history it starts.
+     */
+    public DbRequest getHistoryPage(long roomId, String filterText, HistoryKey after, int limit,
+                                    Callback<HistoryPage> callback) {
+        String match = HistorySearch.matchQuery(filterText);
+        return scheduler.read(DbPriority.INTERACTIVE,
+                "getHistoryPage:" + roomId + ":" + filterText + ":" + after + ":" + limit,
+                () -> readHistoryPage(roomId, match, after, limit), callback);
+    }
+
+    private HistoryPage readHistoryPage(long roomId, String match, HistoryKey after, int limit) {
+        List<HistoryRow> rows = historyDao.getHistoryPage(roomId, after.date, after.type, after.id, match, limit);
+        List<HistoryItem> items = new ArrayList<>(rows.size());
+        for (HistoryRow row : rows) {
+            items.add(historyItem(row));
+        }
+        HistoryKey next = items.size() < limit ? null : items.get(items.size() - 1).key();
+        return new HistoryPage(items, next);
+    }
+
+    private static HistoryItem historyItem(HistoryRow row) {
+        if (row.type == HistoryKey.CHORE) {
+            ChoreListItem chore = new ChoreListItem();
+            chore.id = row.id;
+            chore.name = row.name;
+            chore.completed = row.completed;
+            chore.date = row.date;
+            chore.assigneeName = row.person;
+            return new HistoryItem.ChoreItem(chore, row.person != null ? row.person : "Unassigned");
+        }
+        ExpenseListItem expense = new ExpenseListItem();
+        expense.id = row.id;
+        expense.name = row.name;
+        expense.amountCents = row.amountCents;
+        expense.splitCount = row.splitCount;
+        expense.date = row.date;
+        expense.payerName = row.person;
+        return new HistoryItem.ExpenseItem(expense, row.person != null ? row.person : "Unknown");
+    }
+
+    /**
+     * The {@code limit} chores and expenses that best match {@code text}, most relevant first,
+     * in one room or in every room when {@code roomId} is null. Matching is a prefix lookup in
+     * history_fts, ranked and limited in SQL by {@link HistorySearchDao#search}.
+     */
+    public DbRequest searchHistory(Long roomId, String text, int limit, Callback<HistoryPage> callback) {
+        String match = HistorySearch.matchQuery(text);
+        return scheduler.read(DbPriority.INTERACTIVE, "searchHistory:" + roomId + ":" + text + ":" + limit, () -> {
+            if (match == null) {
+                return new HistoryPage(new ArrayList<>(), null);
+            }
+            List<HistoryMatch> top = historySearchDao.search(match, roomId, limit);
+
+            List<Long> choreIds = new ArrayList<>();
+            List<Long> expenseIds = new ArrayList<>();
+            for (HistoryMatch m : top) {
+                (HistorySearch.typeOf(m.rowid) == HistorySearch.CHORE ? choreIds : expenseIds)
+                        .add(HistorySearch.idOf(m.rowid));
+            }
+            Map<Long, HistoryItem> byRowid = new HashMap<>();
+            for (int from = 0; from < choreIds.size(); from += MAX_BIND_ARGS) {
+                List<Long> chunk = choreIds.subList(from, Math.min(choreIds.size(), from + MAX_BIND_ARGS));
+                for (ChoreListItem chore : choreDao.getChoreListItemsByIds(chunk)) {
+                    byRowid.put(chore.id * 2, new HistoryItem.ChoreItem(chore,
+                            chore.assigneeName != null ? chore.assigneeName : "Unassigned"));
                 }
-                double avgPerExpense = totalExpenses > 0 ? totalAmount / totalExpenses : 0.0;
-
-                List<Pair<String, Integer>> choresPerRoommate = new ArrayList<>();
-                for (Roommate roommate : roommates) {
-                    int count = 0;
-                    for (Chore chore : chores) {
-                        if (chore.assignedToId != null && chore.assignedToId == roommate.id && chore.completed == 1) {
-                            count++;
-                        }
-                    }
-                    choresPerRoommate.add(new Pair<>(roommate.name, count));
+            }
+            for (int from = 0; from < expenseIds.size(); from += MAX_BIND_ARGS) {
+                List<Long> chunk = expenseIds.subList(from, Math.min(expenseIds.size(), from + MAX_BIND_ARGS));
+                for (ExpenseListItem expense : expenseDao.getExpenseListItemsByIds(chunk)) {
+                    byRowid.put(expense.id * 2 + 1, new HistoryItem.ExpenseItem(expense,
+                            expense.payerName != null ? expense.payerName : "Unknown"));
                 }
+            }
+            List<HistoryItem> items = new ArrayList<>(top.size());
+            for (HistoryMatch m : top) {
+                HistoryItem item = byRowid.get(m.rowid);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            return new HistoryPage(items, null);
+        }, callback);
+    }
 
-                Report report = new Report(totalChores, completedChores, pendingChores,
-                        totalExpenses, totalAmount, avgPerExpense, choresPerRoommate);
-                callback.onSuccess(report);
-            } catch (Exception e) {
-                callback.onError(e);
+    public DbRequest getRoomStats(long roomId, Callback<RoomStats> callback) {
+        return scheduler.read(DbPriority.INTERACTIVE, "getRoomStats:" + roomId, () -> {
+            RoomStats stats = roomStatsDao.getRoomStats(roomId);
+            return stats != null ? stats : new RoomStats(roomId);
+        }, callback);
+    }
+
+    // Reads the trigger-maintained totals, so the cost does not grow with the room's history.
+    // No transaction, which would take the writer connection: the counters are read before
+    // the totals, so a write in between can only make the cached entry look stale, never let
+    // a stale report pass for current.
+    public DbRequest generateReport(long roomId, Callback<Report> callback) {
+        return scheduler.read(DbPriority.BACKGROUND, "generateReport:" + roomId, () -> {
+            RoomVersion version = roomVersionDao.getVersion(roomId);
+            Report cached = reportCache.get(roomId, version);
+            if (cached != null) {
+                return cached;
             }
-        });
+            long start = System.nanoTime();
+            RoomStats stats = roomStatsDao.getRoomStats(roomId);
+            Report report = toReport(stats != null ? stats : new RoomStats(roomId),
+                    roomStatsDao.getCompletions(roomId));
+            reportCache.put(roomId, version, report, System.nanoTime() - start);
+            return report;
+        }, callback);
     }
 
-    public void deleteRoom(long roomId, Callback<Void> callback) {
-        executorService.execute(() -> {
-            try {
-                RoomEntity room = roomDao.getRoomById(roomId);
-                if (room != null) {
-                    roomDao.deleteRoom(room);
-                    if (currentRoomId != null && currentRoomId == roomId) {
-                        currentRoomId = null;
-                    }
+    // Like computeBalance, stays out of a transaction so the replay keeps a read connection
+    // instead of queueing behind the writer; a write landing between the cursors shows up
+    // in the next replay.
+    public DbRequest replayReport(long roomId, Callback<Report> callback) {
+        return scheduler.read(DbPriority.BACKGROUND, "replayReport:" + roomId, () -> {
+            List<Roommate> roommates = roommateDao.getRoommatesByRoom(roomId);
+            ReportAccumulator accumulator = new ReportAccumulator(indexOf(roommates));
+            try (Cursor chores = choreDao.streamChoreStatus(roomId)) {
+                CursorAccumulators.addChores(chores, accumulator);
+            }
+            try (Cursor amounts = expenseDao.streamAmounts(roomId)) {
+                CursorAccumulators.addExpenses(amounts, accumulator);
+            }
+            return toReport(roommates, accumulator);
+        }, callback);
+    }
+
+    private static Report toReport(RoomStats stats, List<RoommateCompletion> completions) {
+        List<ChoreCount> choresPerRoommate = new ArrayList<>(completions.size());
+        for (RoommateCompletion completion : completions) {
+            choresPerRoommate.add(new ChoreCount(completion.name, (int) completion.completed));
+        }
+        long avgPerExpenseCents = stats.expenseCount > 0
+                ? Math.round((double) stats.expenseCents / stats.expenseCount) : 0;
+        return new Report((int) stats.choreCount, (int) stats.completedChores,
+                (int) (stats.choreCount - stats.completedChores), (int) stats.expenseCount,
+                stats.expenseCents, avgPerExpenseCents, choresPerRoommate);
+    }
+
+    /**
+     * Rebuilds the room's statistics from the chores and expenses tables and compares them
+     * with the trigger-maintained rows, optionally replacing the rows with the rebuilt ones.
+     */
+    public DbRequest checkRoomStats(long roomId, boolean repair, Callback<StatsCheckResult> callback) {
+        return scheduler.write("checkRoomStats", () -> {
+            RoomStats expected = new RoomStats(roomId);
+            Map<Long, AssigneeStats> expectedAssignees = new HashMap<>();
+            for (ChoreTally tally : choreDao.getChoreTallies(roomId)) {
+                long completed = tally.completed == 1 ? tally.choreCount : 0;
+                expected.choreCount += tally.choreCount;
+                expected.completedChores += completed;
+                if (tally.assignedToId != null) {
+                    AssigneeStats assignee = expectedAssignees.computeIfAbsent(tally.assignedToId,
+                            id -> new AssigneeStats(id, roomId));
+                    assignee.choreCount += tally.choreCount;
+                    assignee.completedChores += completed;
                 }
-                callback.onSuccess(null);
-            } catch (Exception e) {
-                callback.onError(e);
             }
-        });
+            ExpenseTotals expenseTotals = expenseDao.getExpenseTotals(roomId);
+            expected.expenseCount = expenseTotals.expenseCount;
+            expected.expenseCents = expenseTotals.totalCents;
+
+            RoomStats actual = roomStatsDao.getRoomStats(roomId);
+            if (actual == null) {
+                actual = new RoomStats(roomId);
+            }
+            Map<Long, AssigneeStats> actualAssignees = new HashMap<>();
+            for (AssigneeStats assignee : roomStatsDao.getAssigneeStats(roomId)) {
+                actualAssignees.put(assignee.roommateId, assignee);
+            }
+
+            List<StatsDrift> drifts = new ArrayList<>();
+            compareStat(drifts, "chore_count", expected.choreCount, actual.choreCount);
+            compareStat(drifts, "completed_chores", expected.completedChores, actual.completedChores);
+            compareStat(drifts, "expense_count", expected.expenseCount, actual.expenseCount);
+            compareStat(drifts, "expense_cents", expected.expenseCents, actual.expenseCents);
+            Set<Long> assigneeIds = new HashSet<>(expectedAssignees.keySet());
+            assigneeIds.addAll(actualAssignees.keySet());
+            for (long id : assigneeIds) {
+                AssigneeStats want = expectedAssignees.getOrDefault(id, new AssigneeStats(id, roomId));
+                AssigneeStats have = actualAssignees.getOrDefault(id, new AssigneeStats(id, roomId));
+                compareStat(drifts, "roommate " + id + " chore_count", want.choreCount, have.choreCount);
+                compareStat(drifts, "roommate " + id + " completed_chores", want.completedChores, have.completedChores);
+            }
+
+            if (repair && !drifts.isEmpty()) {
+                roomStatsDao.upsertRoomStats(expected);
+                roomStatsDao.deleteAssigneeStats(roomId);
+                roomStatsDao.upsertAssigneeStats(new ArrayList<>(expectedAssignees.values()));
+            }
+            return new StatsCheckResult(drifts, repair && !drifts.isEmpty());
+        }, afterCommit(callback, result -> {
+            // The repair does not move the room's change counters
+            if (result.repaired) {
+                reportCache.remove(roomId);
+            }
+        }));
+    }
+
+    private static void compareStat(List<StatsDrift> drifts, String field, long expected, long actual) {
+        if (expected != actual) {
+            drifts.add(new StatsDrift(field, expected, actual));
+        }
+    }
+
+    private static RoommateIndex indexOf(List<Roommate> roommates) {
+        long[] roommateIds = new long[roommates.size()];
+        for (int i = 0; i < roommateIds.length; i++) {
+            roommateIds[i] = roommates.get(i).id;
+        }
+        return new RoommateIndex(roommateIds);
+    }
+
+    private static Report toReport(List<Roommate> roommates, ReportAccumulator accumulator) {
+        int totalChores = accumulator.totalChores();
+        int completedChores = accumulator.completedChores();
+        int totalExpenses = accumulator.expenseCount();
+        long totalAmountCents = accumulator.totalCents();
+        long avgPerExpenseCents = totalExpenses > 0 ? Math.round((double) totalAmountCents / totalExpenses) : 0;
+
+        List<ChoreCount> choresPerRoommate = new ArrayList<>();
+        for (Roommate roommate : roommates) {
+            int slot = accumulator.index().slotOf(roommate.id);
+            choresPerRoommate.add(new ChoreCount(roommate.name, accumulator.completedBy(slot)));
+        }
+        return new Report(totalChores, completedChores, totalChores - completedChores,
+                totalExpenses, totalAmountCents, avgPerExpenseCents, choresPerRoommate);
+    }
+
+    public DbRequest deleteRoom(long roomId, Callback<Void> callback) {
+        return scheduler.write("deleteRoom", () -> {
+            RoomEntity room = roomDao.getRoomById(roomId);
+            if (room != null) {
+                roomDao.deleteRoom(room);
+            }
+            return null;
+        }, afterCommit(invalidating(callback, "rooms", "roommates", "bills"), result -> {
+            reportCache.remove(roomId);
+            if (currentRoomId != null && currentRoomId == roomId) {
+                currentRoomId = null;
+            }
+        }));
     }
 
     public interface Callback<T> {
@@ -351,45 +948,170 @@ public class DatabaseHelper {
 
     public static class BalanceResult {
         public List<RoommateBalance> balances;
+        public List<SettlementPlanner.Transfer> transfers;
 
-        public BalanceResult(List<RoommateBalance> balances) {
+        public BalanceResult(List<RoommateBalance> balances, List<SettlementPlanner.Transfer> transfers) {
             this.balances = balances;
+            this.transfers = transfers;
+        }
+    }
+
+    public static class RoomData<T> {
+        public List<Roommate> roommates;
+        public T items;
+
+        public RoomData(List<Roommate> roommates, T items) {
+            this.roommates = roommates;
+            this.items = items;
+        }
+    }
+
+    public static class RoomBalanceSummary {
+        public RoomEntity room;
+        public BalanceResult balance;
+        public long outstandingCents;
+
+        public RoomBalanceSummary(RoomEntity room, BalanceResult balance) {
+            this.room = room;
+            this.balance = balance;
+            for (RoommateBalance roommateBalance : balance.balances) {
+                if (roommateBalance.netCents > 0) {
+                    outstandingCents += roommateBalance.netCents;
+                }
+            }
         }
     }
 
     public static class RoommateBalance {
         public Roommate roommate;
-        public double paid;
-        public double owed;
-        public double net;
+        public long paidCents;
+        public long owedCents;
+        public long netCents;
 
-        public RoommateBalance(Roommate roommate, double paid, double owed, double net) {
+        public RoommateBalance(Roommate roommate, long paidCents, long owedCents, long netCents) {
             this.roommate = roommate;
-            this.paid = paid;
-            this.owed = owed;
-            this.net = net;
+            this.paidCents = paidCents;
+            this.owedCents = owedCents;
+            this.netCents = netCents;
+        }
+    }
+
+    public static class LedgerCheckResult {
+        public List<LedgerDrift> drifts;
+        public boolean repaired;
+
+        public LedgerCheckResult(List<LedgerDrift> drifts, boolean repaired) {
+            this.drifts = drifts;
+            this.repaired = repaired;
+        }
+
+        public boolean isConsistent() {
+            return drifts.isEmpty();
+        }
+    }
+
+    public static class LedgerDrift {
+        public Roommate roommate;
+        public BalanceEntry expected;
+        public BalanceEntry actual;  // null when the ledger row is missing
+
+        public LedgerDrift(Roommate roommate, BalanceEntry expected, BalanceEntry actual) {
+            this.roommate = roommate;
+            this.expected = expected;
+            this.actual = actual;
+        }
+    }
+
+    public static class StatsCheckResult {
+        public List<StatsDrift> drifts;
+        public boolean repaired;
+
+        public StatsCheckResult(List<StatsDrift> drifts, boolean repaired) {
+            this.drifts = drifts;
+            this.repaired = repaired;
+        }
+
+        public boolean isConsistent() {
+            return drifts.isEmpty();
+        }
+    }
+
+    public static class StatsDrift {
+        public String field;
+        public long expected;
+        public long actual;
+
+        public StatsDrift(String field, long expected, long actual) {
+            this.field = field;
+            this.expected = expected;
+            this.actual = actual;
         }
     }
 
     public static abstract class HistoryItem {
+        public abstract HistoryKey key();
+
         public static class ChoreItem extends HistoryItem {
-            public Chore chore;
+            public ChoreListItem chore;
             public String assignedTo;
 
-            public ChoreItem(Chore chore, String assignedTo) {
+            public ChoreItem(ChoreListItem chore, String assignedTo) {
                 this.chore = chore;
                 this.assignedTo = assignedTo;
             }
+
+            @Override
+            public HistoryKey key() {
+                return new HistoryKey(chore.date, HistoryKey.CHORE, chore.id);
+            }
         }
 
         public static class ExpenseItem extends HistoryItem {
-            public Expense expense;
+            public ExpenseListItem expense;
             public String payer;
 
-            public ExpenseItem(Expense expense, String payer) {
+            public ExpenseItem(ExpenseListItem expense, String payer) {
                 this.expense = expense;
                 this.payer = payer;
             }
+
+            @Override
+            public HistoryKey key() {
+                return new HistoryKey(expense.date, HistoryKey.EXPENSE, expense.id);
+            }
+        }
+    }
+
+    /** A position in the history timeline, ordered by (date, type, id) descending. */
+    public static final class HistoryKey {
+        static final int CHORE = HistorySearch.CHORE;
+        static final int EXPENSE = HistorySearch.EXPENSE;
+        // Sorts after every stored date, so the first page starts at the newest item
+        public static final HistoryKey FIRST = new HistoryKey("\uFFFF", EXPENSE, Long.MAX_VALUE);
+
+        public final String date;
+        public final int type;
+        public final long id;
+
+        public HistoryKey(String date, int type, long id) {
+            this.date = date;
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            return date + "/" + type + "/" + id;
+        }
+    }
+
+    public static class HistoryPage {
+        public List<HistoryItem> items;
+        public HistoryKey next;  // null on the last page
+
+        public HistoryPage(List<HistoryItem> items, HistoryKey next) {
+            this.items = items;
+            this.next = next;
         }
     }
 
@@ -398,30 +1120,30 @@ public class DatabaseHelper {
         public int completedChores;
         public int pendingChores;
         public int totalExpenses;
-        public double totalAmount;
-        public double avgPerExpense;
-        public List<Pair<String, Integer>> choresPerRoommate;
+        public long totalAmountCents;
+        public long avgPerExpenseCents;
+        public List<ChoreCount> choresPerRoommate;
 
         public Report(int totalChores, int completedChores, int pendingChores,
-                      int totalExpenses, double totalAmount, double avgPerExpense,
-                      List<Pair<String, Integer>> choresPerRoommate) {
+                      int totalExpenses, long totalAmountCents, long avgPerExpenseCents,
+                      List<ChoreCount> choresPerRoommate) {
             this.totalChores = totalChores;
             this.completedChores = completedChores;
             this.pendingChores = pendingChores;
             this.totalExpenses = totalExpenses;
-            this.totalAmount = totalAmount;
-            this.avgPerExpense = avgPerExpense;
+            this.totalAmountCents = totalAmountCents;
+            this.avgPerExpenseCents = avgPerExpenseCents;
             this.choresPerRoommate = choresPerRoommate;
         }
     }
 
-    public static class Pair<F, S> {
-        public F first;
-        public S second;
+    public static class ChoreCount {
+        public String name;
+        public int completed;
 
-        public Pair(F first, S second) {
-            this.first = first;
-            this.second = second;
+        public ChoreCount(String name, int completed) {
+            this.name = name;
+            this.completed = completed;
         }
     }
 }
@@ -0,0 +1,108 @@
+package com.example.roomshare;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of query results, bounded by an estimated size in bytes. Every entry belongs to
+ * the table it was read from; invalidating a table drops its entries and bumps the table's
+ * generation, so a read that started before the invalidation cannot put a stale result.
+ */
+public final class DbCache {
+    private final long budgetBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> generations = new HashMap<>();
+    private long sizeBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    DbCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized <T> T get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return (T) entry.value;
+    }
+
+    synchronized long generation(String table) {
+        return generations.getOrDefault(table, 0L);
+    }
+
+    synchronized void put(String table, String key, Object value, long weightBytes, long generation) {
+        if (generation != generation(table) || weightBytes > budgetBytes) return;
+        Entry previous = entries.put(key, new Entry(table, value, weightBytes));
+        if (previous != null) {
+            sizeBytes -= previous.weightBytes;
+        }
+        sizeBytes += weightBytes;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (sizeBytes > budgetBytes) {
+            sizeBytes -= eldest.next().weightBytes;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    synchronized void invalidate(Iterable<String> tables) {
+        for (String table : tables) {
+            generations.put(table, generation(table) + 1);
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.table.equals(table)) {
+                    sizeBytes -= entry.weightBytes;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    static long sizeOf(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public synchronized long sizeBytes() {
+        return sizeBytes;
+    }
+
+    void dump(StringBuilder out) {
+        out.append("cache hits=").append(hits()).append(" misses=").append(misses())
+                .append(" evictions=").append(evictions())
+                .append(" bytes=").append(sizeBytes()).append('/').append(budgetBytes).append('\n');
+    }
+
+    private static final class Entry {
+        final String table;
+        final Object value;
+        final long weightBytes;
+
+        Entry(String table, Object value, long weightBytes) {
+            this.table = table;
+            this.value = value;
+            this.weightBytes = weightBytes;
+        }
+    }
+}
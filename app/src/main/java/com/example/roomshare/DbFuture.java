@@ -0,0 +1,45 @@
+package com.example.roomshare;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * {@link CompletableFuture} view of a {@link DatabaseHelper} call, so a screen can start
+ * several queries at once and join them. Cancelling the future cancels the request.
+ */
+public final class DbFuture<T> extends CompletableFuture<T> {
+    private volatile DbRequest request;
+
+    private DbFuture() {}
+
+    public static <T> DbFuture<T> of(Function<DatabaseHelper.Callback<T>, DbRequest> call) {
+        DbFuture<T> future = new DbFuture<>();
+        future.request = call.apply(new DatabaseHelper.Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /** The failure behind a {@link CompletionException} from a joined future. */
+    public static Throwable cause(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        DbRequest current = request;
+        if (current != null) {
+            current.cancel();
+        }
+        return super.cancel(mayInterruptIfRunning);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.roomshare;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-operation counters for {@link DatabaseHelper}: queue wait and execution time
+ * histograms, rows returned and errors. Memory is fixed per operation name.
+ */
+public final class DbMetrics {
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    Operation operation(String name) {
+        return operations.computeIfAbsent(name, ignored -> new Operation());
+    }
+
+    /** Counters for {@code name}, or null if it has never run. */
+    public Operation get(String name) {
+        return operations.get(name);
+    }
+
+    void dump(StringBuilder out) {
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            Operation op = entry.getValue();
+            out.append(entry.getKey())
+                    .append(" n=").append(op.execution.count())
+                    .append(" errors=").append(op.errors.get())
+                    .append(" rows=").append(op.rows.get()).append('\n');
+            appendHistogram(out, "  wait", op.queueWait);
+            appendHistogram(out, "  exec", op.execution);
+        }
+    }
+
+    static void appendHistogram(StringBuilder out, String label, LatencyHistogram histogram) {
+        out.append(label)
+                .append(" p50=").append(millis(histogram.percentileNanos(0.50)))
+                .append(" p99=").append(millis(histogram.percentileNanos(0.99)))
+                .append(" max=").append(millis(histogram.maxNanos()))
+                .append(" ms\n");
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.US, "%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    public static final class Operation {
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram execution = new LatencyHistogram();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long waitNanos, long executionNanos, Object result) {
+            queueWait.record(waitNanos);
+            execution.record(executionNanos);
+            if (result instanceof Collection) {
+                rows.addAndGet(((Collection<?>) result).size());
+            } else if (result != null) {
+                rows.incrementAndGet();
+            }
+        }
+
+        void recordError() {
+            errors.incrementAndGet();
+        }
+
+        public LatencyHistogram queueWait() {
+            return queueWait;
+        }
+
+        public LatencyHistogram execution() {
+            return execution;
+        }
+
+        public long rows() {
+            return rows.get();
+        }
+
+        public long errors() {
+            return errors.get();
+        }
+    }
+}
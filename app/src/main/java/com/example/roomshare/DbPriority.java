@@ -0,0 +1,12 @@
+package com.example.roomshare;
+
+/**
+ * How urgently a read is needed. Higher priorities are picked first, but every queued
+ * task gains a step of priority for each {@link PriorityExecutor#DEFAULT_AGING_STEP_MILLIS}
+ * it waits, so background work is never starved.
+ */
+public enum DbPriority {
+    INTERACTIVE,
+    NORMAL,
+    BACKGROUND
+}
@@ -0,0 +1,40 @@
+package com.example.roomshare;
+
+import java.util.concurrent.Future;
+
+/**
+ * Handle for an operation submitted to {@link DatabaseHelper}. Cancelling it stops the
+ * callback from firing and skips the work if it has not started yet.
+ */
+public final class DbRequest {
+    private final Runnable onCancel;
+    private volatile boolean cancelled;
+
+    public DbRequest() {
+        this(null);
+    }
+
+    private DbRequest(Runnable onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    /** A request that cancels all of {@code futures} when it is cancelled. */
+    public static DbRequest of(Future<?>... futures) {
+        return new DbRequest(() -> {
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+        });
+    }
+
+    public void cancel() {
+        cancelled = true;
+        if (onCancel != null) {
+            onCancel.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
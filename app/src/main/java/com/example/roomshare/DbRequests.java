@@ -0,0 +1,33 @@
+package com.example.roomshare;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The latest request per key for one screen. Starting a request under a key cancels the
+ * one it replaces, so a screen only ever waits for its newest load.
+ */
+public final class DbRequests {
+    private final Map<String, DbRequest> latest = new HashMap<>();
+
+    public void replace(String key, DbRequest request) {
+        DbRequest previous = latest.put(key, request);
+        if (previous != null && previous != request) {
+            previous.cancel();
+        }
+    }
+
+    public void cancel(String key) {
+        DbRequest request = latest.remove(key);
+        if (request != null) {
+            request.cancel();
+        }
+    }
+
+    public void cancelAll() {
+        for (DbRequest request : latest.values()) {
+            request.cancel();
+        }
+        latest.clear();
+    }
+}
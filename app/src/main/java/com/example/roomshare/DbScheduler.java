@@ -0,0 +1,301 @@
+package com.example.roomshare;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link DatabaseHelper}'s work. Reads share a small {@link PriorityExecutor} so they
+ * can use SQLite's concurrent WAL readers without interactive reads queueing behind
+ * reports; reads that fan out use a separate work-stealing pool. Writes go through one thread and a
+ * {@link GroupCommitWriter}, so they commit in the order they were submitted.
+ *
+ * <p>A read submitted with a key joins an identical read that is still queued instead of
+ * running again. Reads that have already started are never joined, so a caller never gets
+ * a result that predates its request. Both lanes are bounded and reject new work through
+ * the callback once full.
+ */
+final class DbScheduler {
+    static final int DEFAULT_MAX_BATCH = 64;
+    static final long DEFAULT_WINDOW_MILLIS = 2;
+    static final int MAX_PENDING_READS = 64;
+    static final int MAX_PENDING_WRITES = 1024;
+
+    private final PriorityExecutor readers;
+    private final ForkJoinPool fanOut;
+    private final ExecutorService writerThread;
+    private final GroupCommitWriter writer;
+    private final DbMetrics metrics = new DbMetrics();
+    private final Object lock = new Object();
+    private final Map<String, SharedRead<?>> queuedReads = new HashMap<>();
+    private int pendingReads;
+
+    private volatile Runnable beforeWork = () -> {};
+    private volatile Runnable afterWork = () -> {};
+
+    private DbScheduler(PriorityExecutor readers, ForkJoinPool fanOut, ExecutorService writerThread,
+                        Executor writerLane, Consumer<Runnable> transaction, int maxBatch, long windowMillis) {
+        this.readers = readers;
+        this.fanOut = fanOut;
+        this.writerThread = writerThread;
+        this.writer = new GroupCommitWriter(transaction, task -> writerLane.execute(() -> {
+            beforeWork();
+            try {
+                task.run();
+            } finally {
+                afterWork();
+            }
+        }), maxBatch, windowMillis, MAX_PENDING_WRITES);
+    }
+
+    static DbScheduler split(Consumer<Runnable> transaction, int readThreads) {
+        return split(transaction, readThreads, DEFAULT_MAX_BATCH, DEFAULT_WINDOW_MILLIS);
+    }
+
+    static DbScheduler split(Consumer<Runnable> transaction, int readThreads, int maxBatch, long windowMillis) {
+        ExecutorService writerThread = Executors.newSingleThreadExecutor();
+        // A read that fans out parks its reader thread until the pool is done, so the pool
+        // gets one thread fewer than the read lane.
+        return new DbScheduler(
+                new PriorityExecutor("db-read", readThreads, PriorityExecutor.DEFAULT_AGING_STEP_MILLIS),
+                new ForkJoinPool(Math.max(1, readThreads - 1)), writerThread, writerThread, transaction, maxBatch, windowMillis);
+    }
+
+    // Reads and writes on the same single thread, one transaction per write; kept as a
+    // baseline for the load test
+    static DbScheduler serial(Consumer<Runnable> transaction) {
+        PriorityExecutor single = new PriorityExecutor("db", 1, PriorityExecutor.DEFAULT_AGING_STEP_MILLIS);
+        return new DbScheduler(single, new ForkJoinPool(1), null, single, transaction, 1, 0);
+    }
+
+    /**
+     * Queues a read. {@code key} should identify the query and its arguments, or be null
+     * for reads that must not be shared. A key is always read at the same priority. Metrics
+     * are recorded under the part of the key before the first ':'.
+     */
+    <T> DbRequest read(DbPriority priority, String key, Callable<T> work, DatabaseHelper.Callback<T> callback) {
+        DbRequest request = new DbRequest();
+        SharedRead<T> read;
+        synchronized (lock) {
+            @SuppressWarnings("unchecked")
+            SharedRead<T> queued = key == null ? null : (SharedRead<T>) queuedReads.get(key);
+            if (queued != null) {
+                queued.subscribers.add(new Subscriber<>(request, callback));
+                return request;
+            }
+            if (pendingReads >= MAX_PENDING_READS) {
+                read = null;
+            } else {
+                pendingReads++;
+                read = new SharedRead<>(key, new Timed<>(metrics.operation(operationOf(key)), work));
+                read.subscribers.add(new Subscriber<>(request, callback));
+                if (key != null) {
+                    queuedReads.put(key, read);
+                }
+            }
+        }
+        if (read == null) {
+            metrics.operation(operationOf(key)).recordError();
+            callback.onError(new RejectedExecutionException("Too many pending database reads"));
+        } else {
+            readers.execute(priority, read);
+        }
+        return request;
+    }
+
+    /**
+     * Queues a write. {@code work} may share a transaction with other writes, be rolled back
+     * with them and run again on its own, so it must only change the database; in-memory
+     * side effects belong in the callback's {@code onSuccess}.
+     */
+    <T> DbRequest write(String operation, Callable<T> work, DatabaseHelper.Callback<T> callback) {
+        Timed<T> timed = new Timed<>(metrics.operation(operation), work);
+        return writer.submit(timed, new DatabaseHelper.Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                timed.finish(result, null);
+                callback.onSuccess(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                timed.finish(null, e);
+                callback.onError(e);
+            }
+        });
+    }
+
+    private static String operationOf(String key) {
+        if (key == null) return "read";
+        int colon = key.indexOf(':');
+        return colon < 0 ? key : key.substring(0, colon);
+    }
+
+    // Called from a read to split its work across the fan-out pool
+    <T> T fork(ForkJoinTask<T> task) {
+        return fanOut.invoke(task);
+    }
+
+    LatencyHistogram queueWait(DbPriority priority) {
+        return readers.queueWait(priority);
+    }
+
+    DbMetrics metrics() {
+        return metrics;
+    }
+
+    String dumpMetrics() {
+        StringBuilder out = new StringBuilder();
+        for (DbPriority priority : DbPriority.values()) {
+            DbMetrics.appendHistogram(out, "queue " + priority.name().toLowerCase(Locale.US),
+                    readers.queueWait(priority));
+        }
+        out.append("writer commits=").append(writer.commits())
+                .append(" writes=").append(writer.committedWrites()).append('\n');
+        metrics.dump(out);
+        return out.toString();
+    }
+
+    /** Runs the hooks on the worker thread around each read, write batch or fan-out step. */
+    void setWorkHooks(Runnable before, Runnable after) {
+        beforeWork = before;
+        afterWork = after;
+    }
+
+    void beforeWork() {
+        beforeWork.run();
+    }
+
+    void afterWork() {
+        afterWork.run();
+    }
+
+    GroupCommitWriter writer() {
+        return writer;
+    }
+
+    void shutdown() {
+        readers.shutdown();
+        fanOut.shutdown();
+        if (writerThread != null) {
+            writerThread.shutdown();
+        }
+    }
+
+    private final class SharedRead<T> implements Runnable {
+        private final String key;
+        private final Timed<T> work;
+        private final List<Subscriber<T>> subscribers = new ArrayList<>();
+
+        SharedRead(String key, Timed<T> work) {
+            this.key = key;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            List<Subscriber<T>> targets = new ArrayList<>();
+            synchronized (lock) {
+                if (key != null) {
+                    queuedReads.remove(key, this);
+                }
+                for (Subscriber<T> subscriber : subscribers) {
+                    if (!subscriber.request.isCancelled()) {
+                        targets.add(subscriber);
+                    }
+                }
+                if (targets.isEmpty()) {
+                    pendingReads--;
+                    return;
+                }
+            }
+
+            T result = null;
+            Exception error = null;
+            beforeWork();
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                error = e;
+            } finally {
+                afterWork();
+                synchronized (lock) {
+                    pendingReads--;
+                }
+            }
+            work.finish(result, error);
+            for (Subscriber<T> subscriber : targets) {
+                subscriber.deliver(result, error);
+            }
+        }
+    }
+
+    // Times one operation from submission; finish() records it once, after the last attempt
+    private static final class Timed<T> implements Callable<T> {
+        private final DbMetrics.Operation operation;
+        private final Callable<T> work;
+        private final long submittedAt = System.nanoTime();
+        private volatile long startedAt;
+        private volatile long finishedAt;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Timed(DbMetrics.Operation operation, Callable<T> work) {
+            this.operation = operation;
+            this.work = work;
+        }
+
+        @Override
+        public T call() throws Exception {
+            startedAt = System.nanoTime();
+            try {
+                return work.call();
+            } finally {
+                finishedAt = System.nanoTime();
+            }
+        }
+
+        void finish(T result, Exception error) {
+            if (!finished.compareAndSet(false, true)) return;
+            if (startedAt != 0) {
+                operation.record(startedAt - submittedAt, finishedAt - startedAt, error == null ? result : null);
+            }
+            if (error != null) {
+                operation.recordError();
+            }
+        }
+    }
+
+    private static final class Subscriber<T> {
+        private final DbRequest request;
+        private final DatabaseHelper.Callback<T> callback;
+
+        Subscriber(DbRequest request, DatabaseHelper.Callback<T> callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+
+        void deliver(T result, Exception error) {
+            if (request.isCancelled()) return;
+            if (error != null) {
+                callback.onError(error);
+                return;
+            }
+            try {
+                callback.onSuccess(result);
+            } catch (Exception e) {
+                callback.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.roomshare;
+
+import android.os.Bundle;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.roomshare.data.Money;
+import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.SlowQueryLog;
+import com.example.roomshare.databinding.ActivityDiagnosticsBinding;
+
+import java.util.List;
+
+public class DiagnosticsActivity extends AppCompatActivity {
+    private ActivityDiagnosticsBinding binding;
+    private DatabaseHelper dbHelper;
+    private final DbRequests requests = new DbRequests();
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityDiagnosticsBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        dbHelper = DatabaseHelper.getInstance(this);
+        binding.btnSlowQueryLog.setOnClickListener(v -> {
+            SlowQueryLog.setEnabled(this, !SlowQueryLog.isEnabled(this));
+            updateSlowQueryLogButton();
+        });
+        binding.btnCheckLedger.setOnClickListener(v -> checkLedgers());
+        binding.btnRefresh.setOnClickListener(v -> showMetrics());
+        binding.btnBack.setOnClickListener(v -> finish());
+        updateSlowQueryLogButton();
+        showMetrics();
+    }
+
+    private void updateSlowQueryLogButton() {
+        binding.btnSlowQueryLog.setText(SlowQueryLog.isEnabled(this)
+                ? "Disable slow query log (after restart)"
+                : "Enable slow query log (after restart)");
+    }
+
+    private void showMetrics() {
+        binding.textMetrics.setText(dbHelper.dumpMetrics());
+    }
+
+    // Replays every room's expenses and compares them with the stored balances. Only
+    // reports drift; nothing is repaired from here.
+    private void checkLedgers() {
+        binding.textMetrics.setText("Checking balance ledgers...\n");
+        requests.replace("rooms", dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
+            @Override
+            public void onSuccess(List<RoomEntity> rooms) {
+                if (rooms.isEmpty()) {
+                    runOnUiThread(() -> binding.textMetrics.append("No rooms\n"));
+                }
+                for (RoomEntity room : rooms) {
+                    checkLedger(room);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                runOnUiThread(() -> binding.textMetrics.append("Error loading rooms: " + e.getMessage() + "\n"));
+            }
+        }));
+    }
+
+    private void checkLedger(RoomEntity room) {
+        requests.replace("ledger:" + room.id, dbHelper.checkBalanceLedger(room.id, false,
+                new DatabaseHelper.Callback<DatabaseHelper.LedgerCheckResult>() {
+                    @Override
+                    public void onSuccess(DatabaseHelper.LedgerCheckResult result) {
+                        runOnUiThread(() -> binding.textMetrics.append(describe(room, result)));
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        runOnUiThread(() -> binding.textMetrics.append(
+                                room.name + ": error " + e.getMessage() + "\n"));
+                    }
+                }));
+    }
+
+    private static String describe(RoomEntity room, DatabaseHelper.LedgerCheckResult result) {
+        if (result.isConsistent()) {
+            return room.name + ": ok\n";
+        }
+        StringBuilder out = new StringBuilder(room.name).append(": ")
+                .append(result.drifts.size()).append(" drifted\n");
+        for (DatabaseHelper.LedgerDrift drift : result.drifts) {
+            out.append("  ").append(drift.roommate.name)
+                    .append(" net expected ").append(Money.format(drift.expected.netCents))
+                    .append(" was ").append(drift.actual == null ? "missing" : Money.format(drift.actual.netCents))
+                    .append('\n');
+        }
+        return out.toString();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        requests.cancelAll();
+    }
+}
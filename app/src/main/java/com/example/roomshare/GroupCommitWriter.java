@@ -0,0 +1,175 @@
+package com.example.roomshare;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces writes into shared transactions. Writes that arrive while a batch is being
+ * collected (up to {@code maxBatch}, waiting at most {@code windowMillis} for more) run
+ * in submission order inside one transaction, and every caller's callback fires after
+ * the commit with its own result. If any write in a batch fails, the batch is rolled back
+ * and its writes are retried one transaction each, so only the failing write reports an
+ * error. The queue is bounded: once {@code capacity} writes are waiting, new ones are
+ * rejected through their callback instead of queueing without limit.
+ */
+final class GroupCommitWriter {
+    private final Consumer<Runnable> transaction;
+    private final Executor executor;
+    private final int maxBatch;
+    private final long windowNanos;
+    private final LinkedBlockingQueue<Write<?>> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong committedWrites = new AtomicLong();
+
+    GroupCommitWriter(Consumer<Runnable> transaction, Executor executor, int maxBatch, long windowMillis,
+                      int capacity) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch must be at least 1");
+        }
+        this.transaction = transaction;
+        this.executor = executor;
+        this.maxBatch = maxBatch;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    <T> DbRequest submit(Callable<T> work, DatabaseHelper.Callback<T> callback) {
+        Write<T> write = new Write<>(work, callback);
+        if (!queue.offer(write)) {
+            callback.onError(new RejectedExecutionException("Too many pending database writes"));
+            return write.request;
+        }
+        scheduleDrain();
+        return write.request;
+    }
+
+    long commits() {
+        return commits.get();
+    }
+
+    long committedWrites() {
+        return committedWrites.get();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            List<Write<?>> batch = collect();
+            if (!batch.isEmpty()) {
+                commit(batch);
+            }
+        } finally {
+            draining.set(false);
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private List<Write<?>> collect() {
+        List<Write<?>> batch = new ArrayList<>();
+        queue.drainTo(batch, maxBatch);
+        batch.removeIf(write -> write.request.isCancelled());
+        long deadline = System.nanoTime() + windowNanos;
+        while (!batch.isEmpty() && batch.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            Write<?> next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (next == null) break;
+            batch.add(next);
+            queue.drainTo(batch, maxBatch - batch.size());
+            batch.removeIf(write -> write.request.isCancelled());
+        }
+        return batch;
+    }
+
+    private void commit(List<Write<?>> batch) {
+        try {
+            transaction.accept(() -> {
+                for (Write<?> write : batch) {
+                    write.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).fail(e instanceof WriteFailure ? (Exception) e.getCause() : e);
+            } else {
+                for (Write<?> write : batch) {
+                    commit(Collections.singletonList(write));
+                }
+            }
+            return;
+        }
+        commits.incrementAndGet();
+        committedWrites.addAndGet(batch.size());
+        for (Write<?> write : batch) {
+            write.complete();
+        }
+    }
+
+    private static final class Write<T> {
+        private final DbRequest request = new DbRequest();
+        private final Callable<T> work;
+        private final DatabaseHelper.Callback<T> callback;
+        private T result;
+
+        Write(Callable<T> work, DatabaseHelper.Callback<T> callback) {
+            this.work = work;
+            this.callback = callback;
+        }
+
+        void run() {
+            try {
+                result = work.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new WriteFailure(e);
+            }
+        }
+
+        void complete() {
+            if (request.isCancelled()) return;
+            try {
+                callback.onSuccess(result);
+            } catch (Exception e) {
+                callback.onError(e);
+            }
+        }
+
+        void fail(Exception e) {
+            if (request.isCancelled()) return;
+            callback.onError(e);
+        }
+    }
+
+    // Carries a checked exception out of the transaction body
+    private static final class WriteFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        WriteFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -6,7 +6,10 @@ import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.roomshare.data.RoomEntity;
 import com.example.roomshare.databinding.ActivityHistoryBinding;
@@ -15,11 +18,23 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class HistoryActivity extends AppCompatActivity {
+    static final int PAGE_SIZE = 50;
+    // Rows left below the viewport when the next page is requested
+    static final int PREFETCH_DISTANCE = 15;
+    static final int SEARCH_LIMIT = 100;
+
     private ActivityHistoryBinding binding;
     private DatabaseHelper dbHelper;
+    private final DbRequests requests = new DbRequests();
     private List<RoomEntity> rooms = new ArrayList<>();
     private ArrayAdapter<String> roomAdapter;
     private Long currentRoomId = null;
+    private LiveQuery<DatabaseHelper.HistoryPage> historyQuery;
+    private HistoryAdapter historyAdapter;
+    private LinearLayoutManager historyLayout;
+    private String historyFilter;
+    private DatabaseHelper.HistoryKey nextKey;
+    private boolean loadingPage;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -37,6 +52,17 @@ public class HistoryActivity extends AppCompatActivity {
         roomAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         binding.spinnerRoom.setAdapter(roomAdapter);
 
+        historyAdapter = new HistoryAdapter();
+        historyLayout = new LinearLayoutManager(this);
+        binding.recyclerHistory.setLayoutManager(historyLayout);
+        binding.recyclerHistory.setAdapter(historyAdapter);
+        binding.recyclerHistory.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                maybeLoadNextPage();
+            }
+        });
+
         binding.spinnerRoom.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
@@ -51,6 +77,7 @@ public class HistoryActivity extends AppCompatActivity {
         });
 
         binding.btnFilter.setOnClickListener(v -> loadHistory());
+        binding.checkAllRooms.setOnCheckedChangeListener((button, checked) -> loadHistory());
         binding.btnClear.setOnClickListener(v -> {
             binding.editFilter.setText("");
             loadHistory();
@@ -59,7 +86,7 @@ public class HistoryActivity extends AppCompatActivity {
     }
 
     private void loadRooms() {
-        dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
+        requests.replace("rooms", dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
             @Override
             public void onSuccess(List<RoomEntity> result) {
                 runOnUiThread(() -> {
@@ -81,7 +108,7 @@ public class HistoryActivity extends AppCompatActivity {
             public void onError(Exception e) {
                 runOnUiThread(() -> showStatus("Error loading rooms: " + e.getMessage()));
             }
-        });
+        }));
     }
 
     private void loadHistory() {
@@ -91,46 +118,67 @@ public class HistoryActivity extends AppCompatActivity {
         }
 
         String filterText = binding.editFilter.getText().toString().trim();
+        historyFilter = filterText.isEmpty() ? null : filterText;
+
+        if (historyQuery != null) {
+            historyQuery.removeObservers(this);
+        }
+        binding.recyclerHistory.scrollToPosition(0);
+        historyQuery = historyFilter != null && binding.checkAllRooms.isChecked()
+                ? dbHelper.observeSearch(null, historyFilter, SEARCH_LIMIT)
+                : dbHelper.observeHistory(currentRoomId, historyFilter, PAGE_SIZE);
+        historyQuery.observe(this, this::displayFirstPage,
+                e -> showStatus("Error loading history: " + e.getMessage()));
+    }
+
+    // Each change to the room's history restarts the timeline from its newest page
+    private void displayFirstPage(DatabaseHelper.HistoryPage page) {
+        requests.cancel("historyPage");
+        loadingPage = false;
+        nextKey = page.next;
+        historyAdapter.setItems(page.items);
+        binding.textHistoryEmpty.setVisibility(page.items.isEmpty() ? View.VISIBLE : View.GONE);
+        binding.textHistoryEmpty.setText("No history found");
+        maybeLoadNextPage();
+    }
+
+    private void maybeLoadNextPage() {
+        if (loadingPage || nextKey == null || currentRoomId == null) return;
+        if (historyLayout.findLastVisibleItemPosition() < historyAdapter.getItemCount() - PREFETCH_DISTANCE) return;
 
-        dbHelper.getHistory(currentRoomId, filterText.isEmpty() ? null : filterText, 
-                new DatabaseHelper.Callback<List<DatabaseHelper.HistoryItem>>() {
+        loadingPage = true;
+        DatabaseHelper.HistoryKey after = nextKey;
+        requests.replace("historyPage", dbHelper.getHistoryPage(currentRoomId, historyFilter, nextKey, PAGE_SIZE,
+                new DatabaseHelper.Callback<DatabaseHelper.HistoryPage>() {
             @Override
-            public void onSuccess(List<DatabaseHelper.HistoryItem> result) {
+            public void onSuccess(DatabaseHelper.HistoryPage page) {
                 runOnUiThread(() -> {
-                    displayHistory(result);
-                    showStatus("History loaded successfully");
+                    if (after != nextKey) return;  // the first page was reloaded meanwhile
+                    loadingPage = false;
+                    nextKey = page.next;
+                    historyAdapter.appendItems(page.items);
                 });
             }
 
             @Override
             public void onError(Exception e) {
-                runOnUiThread(() -> showStatus("Error loading history: " + e.getMessage()));
+                runOnUiThread(() -> {
+                    if (after != nextKey) return;
+                    loadingPage = false;
+                    showStatus("Error loading history: " + e.getMessage());
+                });
             }
-        });
-    }
-
-    private void displayHistory(List<DatabaseHelper.HistoryItem> history) {
-        StringBuilder text = new StringBuilder();
-        for (DatabaseHelper.HistoryItem item : history) {
-            if (item instanceof DatabaseHelper.HistoryItem.ChoreItem) {
-                DatabaseHelper.HistoryItem.ChoreItem choreItem = (DatabaseHelper.HistoryItem.ChoreItem) item;
-                String status = (choreItem.chore.completed == 1) ? "[X]" : "[ ]";
-                String statusText = (choreItem.chore.completed == 1) ? "Completed" : "Pending";
-                text.append(status).append(" ").append(choreItem.chore.name)
-                    .append(" - Assigned to: ").append(choreItem.assignedTo)
-                    .append(" (").append(statusText).append(")\n");
-            } else if (item instanceof DatabaseHelper.HistoryItem.ExpenseItem) {
-                DatabaseHelper.HistoryItem.ExpenseItem expenseItem = (DatabaseHelper.HistoryItem.ExpenseItem) item;
-                text.append(expenseItem.expense.name).append(" - Paid by: ")
-                    .append(expenseItem.payer).append("\n");
-            }
-        }
-        binding.textHistoryList.setText(text.length() > 0 ? text.toString() : "No history found");
+        }));
     }
 
     private void showStatus(String message) {
         binding.textStatus.setText(message);
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
-}
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        requests.cancelAll();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.roomshare;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Binds history items to recycled rows, so only the visible part of the timeline is laid out. */
+public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHolder> {
+    private final List<DatabaseHelper.HistoryItem> items = new ArrayList<>();
+
+    public void setItems(List<DatabaseHelper.HistoryItem> page) {
+        items.clear();
+        items.addAll(page);
+        notifyDataSetChanged();
+    }
+
+    public void appendItems(List<DatabaseHelper.HistoryItem> page) {
+        int start = items.size();
+        items.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(android.R.layout.simple_list_item_1, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.text.setText(describe(items.get(position)));
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.size();
+    }
+
+    private static String describe(DatabaseHelper.HistoryItem item) {
+        if (item instanceof DatabaseHelper.HistoryItem.ChoreItem) {
+            DatabaseHelper.HistoryItem.ChoreItem choreItem = (DatabaseHelper.HistoryItem.ChoreItem) item;
+            String status = (choreItem.chore.completed == 1) ? "[X]" : "[ ]";
+            String statusText = (choreItem.chore.completed == 1) ? "Completed" : "Pending";
+            return status + " " + choreItem.chore.name + " - Assigned to: " + choreItem.assignedTo
+                    + " (" + statusText + ")";
+        }
+        DatabaseHelper.HistoryItem.ExpenseItem expenseItem = (DatabaseHelper.HistoryItem.ExpenseItem) item;
+        return expenseItem.expense.name + " - Paid by: " + expenseItem.payer;
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView text;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            text = itemView.findViewById(android.R.id.text1);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.roomshare;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.InvalidationTracker;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * {@link LiveData} over a {@link DatabaseHelper} read. While it has active observers it
+ * listens to Room's {@link InvalidationTracker} and re-runs the read when one of its
+ * tables changes. All changes within {@link #COALESCE_MILLIS} of the first one, and any
+ * that arrive while a reload is running, lead to a single reload. A read can hand back the
+ * very value it delivered last to say that nothing it shows has changed; observers are
+ * not notified again for it.
+ */
+public final class LiveQuery<T> extends LiveData<T> {
+    static final long COALESCE_MILLIS = 100;
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private final InvalidationTracker tracker;
+    private final Function<DatabaseHelper.Callback<T>, DbRequest> query;
+    private final InvalidationTracker.Observer observer;
+    private final MutableLiveData<Exception> errors = new MutableLiveData<>();
+    private final Runnable reload = this::reload;
+    // Main thread only
+    private boolean reloadScheduled;
+    private boolean stale;
+    private boolean delivered;
+    private DbRequest loading;
+
+    LiveQuery(InvalidationTracker tracker, String[] tables, Function<DatabaseHelper.Callback<T>, DbRequest> query) {
+        this.tracker = tracker;
+        this.query = query;
+        this.observer = new InvalidationTracker.Observer(tables) {
+            @Override
+            public void onInvalidated(Set<String> changed) {
+                MAIN.post(LiveQuery.this::scheduleReload);
+            }
+        };
+    }
+
+    public void observe(LifecycleOwner owner, Observer<? super T> onResult, Observer<Exception> onError) {
+        observe(owner, onResult);
+        errors.observe(owner, onError);
+    }
+
+    @Override
+    public void removeObservers(LifecycleOwner owner) {
+        super.removeObservers(owner);
+        errors.removeObservers(owner);
+    }
+
+    @Override
+    protected void onActive() {
+        tracker.addObserver(observer);
+        reload();
+    }
+
+    @Override
+    protected void onInactive() {
+        tracker.removeObserver(observer);
+        MAIN.removeCallbacks(reload);
+        reloadScheduled = false;
+        stale = false;
+        if (loading != null) {
+            loading.cancel();
+            loading = null;
+        }
+    }
+
+    private void scheduleReload() {
+        if (!hasActiveObservers()) return;
+        if (loading != null) {
+            stale = true;
+        } else if (!reloadScheduled) {
+            reloadScheduled = true;
+            MAIN.postDelayed(reload, COALESCE_MILLIS);
+        }
+    }
+
+    private void reload() {
+        MAIN.removeCallbacks(reload);
+        reloadScheduled = false;
+        if (loading != null) {
+            stale = true;
+            return;
+        }
+        DbRequest[] request = new DbRequest[1];
+        request[0] = query.apply(new DatabaseHelper.Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                MAIN.post(() -> {
+                    if (!delivered || result != getValue()) {
+                        delivered = true;
+                        setValue(result);
+                    }
+                    loaded(request[0]);
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                errors.postValue(e);
+                MAIN.post(() -> loaded(request[0]));
+            }
+        });
+        loading = request[0];
+    }
+
+    private void loaded(DbRequest request) {
+        if (request != loading) return;
+        loading = null;
+        if (stale) {
+            stale = false;
+            scheduleReload();
+        }
+    }
+}
@@ -2,13 +2,17 @@ package com.example.roomshare;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.View;
+import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.roomshare.data.Money;
 import com.example.roomshare.data.RoomEntity;
+import com.example.roomshare.data.RoomStats;
 import com.example.roomshare.databinding.ActivityMainBinding;
 
 import java.util.ArrayList;
@@ -17,8 +21,10 @@ import java.util.List;
 public class MainActivity extends AppCompatActivity {
     private ActivityMainBinding binding;
     private DatabaseHelper dbHelper;
+    private final DbRequests requests = new DbRequests();
     private List<RoomEntity> rooms = new ArrayList<>();
     private ArrayAdapter<String> roomAdapter;
+    private LiveQuery<RoomStats> statsQuery;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -34,6 +40,10 @@ public class MainActivity extends AppCompatActivity {
 
     private void setupUI() {
         binding.titleText.setText("Welcome to RoomShare!");
+        binding.titleText.setOnLongClickListener(v -> {
+            startActivity(new Intent(this, DiagnosticsActivity.class));
+            return true;
+        });
 
         binding.btnSetup.setOnClickListener(v -> 
             startActivity(new Intent(this, SetupActivity.class)));
@@ -58,10 +68,32 @@ public class MainActivity extends AppCompatActivity {
         roomAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, new ArrayList<>());
         roomAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         binding.spinnerRooms.setAdapter(roomAdapter);
+        binding.spinnerRooms.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                if (position >= 0 && position < rooms.size()) {
+                    observeRoomStats(rooms.get(position).id);
+                }
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {}
+        });
+    }
+
+    private void observeRoomStats(long roomId) {
+        if (statsQuery != null) {
+            statsQuery.removeObservers(this);
+        }
+        statsQuery = dbHelper.observeRoomStats(roomId);
+        statsQuery.observe(this, stats -> binding.textRoomStats.setText(
+                stats.choreCount + " chore(s), " + stats.completedChores + " done\n"
+                + stats.expenseCount + " expense(s), $" + Money.format(stats.expenseCents) + " total"),
+                e -> binding.textRoomStats.setText("Error loading statistics: " + e.getMessage()));
     }
 
     private void loadRooms() {
-        dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
+        requests.replace("rooms", dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
             @Override
             public void onSuccess(List<RoomEntity> result) {
                 runOnUiThread(() -> {
@@ -71,6 +103,13 @@ public class MainActivity extends AppCompatActivity {
                         roomAdapter.add(room.name);
                     }
                     roomAdapter.notifyDataSetChanged();
+                    if (rooms.isEmpty()) {
+                        if (statsQuery != null) {
+                            statsQuery.removeObservers(MainActivity.this);
+                            statsQuery = null;
+                        }
+                        binding.textRoomStats.setText("");
+                    }
                 });
             }
 
@@ -80,7 +119,34 @@ public class MainActivity extends AppCompatActivity {
                     Toast.makeText(MainActivity.this, "Error loading rooms: " + e.getMessage(), 
                         Toast.LENGTH_SHORT).show());
             }
-        });
+        }));
+        loadAllBalances();
+    }
+
+    private void loadAllBalances() {
+        requests.replace("allRoomBalances", dbHelper.getAllRoomBalances(new DatabaseHelper.Callback<List<DatabaseHelper.RoomBalanceSummary>>() {
+            @Override
+            public void onSuccess(List<DatabaseHelper.RoomBalanceSummary> result) {
+                StringBuilder sb = new StringBuilder();
+                for (DatabaseHelper.RoomBalanceSummary summary : result) {
+                    sb.append(summary.room.name).append(": ");
+                    if (summary.outstandingCents == 0) {
+                        sb.append("settled");
+                    } else {
+                        sb.append("$").append(Money.format(summary.outstandingCents)).append(" outstanding, ")
+                            .append(summary.balance.transfers.size()).append(" payment(s)");
+                    }
+                    sb.append("\n");
+                }
+                String text = result.isEmpty() ? "No rooms yet" : sb.toString();
+                runOnUiThread(() -> binding.textAllRooms.setText(text));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                runOnUiThread(() -> binding.textAllRooms.setText("Error loading balances: " + e.getMessage()));
+            }
+        }));
     }
 
     private void deleteSelectedRoom() {
@@ -122,5 +188,10 @@ public class MainActivity extends AppCompatActivity {
         super.onResume();
         loadRooms();
     }
-}
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        requests.cancelAll();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.roomshare;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed pool of worker threads that take tasks by {@link DbPriority}, FIFO within a
+ * priority. A waiting task's rank improves by one priority level per aging step, so a
+ * background task that has waited two steps beats a fresh interactive one. Queue-wait
+ * time is recorded per priority.
+ */
+final class PriorityExecutor implements Executor {
+    static final long DEFAULT_AGING_STEP_MILLIS = 250;
+    private static final DbPriority[] PRIORITIES = DbPriority.values();
+
+    private final Object lock = new Object();
+    private final List<ArrayDeque<Task>> queues;
+    private final LatencyHistogram[] waits;
+    private final long agingStepNanos;
+    private boolean shutdown;
+
+    PriorityExecutor(String name, int threads, long agingStepMillis) {
+        this.agingStepNanos = TimeUnit.MILLISECONDS.toNanos(agingStepMillis);
+        queues = new ArrayList<>(PRIORITIES.length);
+        waits = new LatencyHistogram[PRIORITIES.length];
+        for (int p = 0; p < PRIORITIES.length; p++) {
+            queues.add(new ArrayDeque<>());
+            waits[p] = new LatencyHistogram();
+        }
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, name + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        execute(DbPriority.NORMAL, task);
+    }
+
+    void execute(DbPriority priority, Runnable task) {
+        synchronized (lock) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            queues.get(priority.ordinal()).add(new Task(priority, task, System.nanoTime()));
+            lock.notify();
+        }
+    }
+
+    LatencyHistogram queueWait(DbPriority priority) {
+        return waits[priority.ordinal()];
+    }
+
+    // Queued tasks still run; workers exit once the queues are empty
+    void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            lock.notifyAll();
+        }
+    }
+
+    private void work() {
+        Task task;
+        while ((task = take()) != null) {
+            waits[task.priority.ordinal()].record(System.nanoTime() - task.enqueuedAt);
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    private Task take() {
+        synchronized (lock) {
+            while (true) {
+                Task next = pollLocked(System.nanoTime());
+                if (next != null || shutdown) {
+                    return next;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    private Task pollLocked(long now) {
+        int best = -1;
+        long bestRank = 0;
+        for (int p = 0; p < queues.size(); p++) {
+            Task head = queues.get(p).peek();
+            if (head == null) continue;
+            long rank = p * agingStepNanos - (now - head.enqueuedAt);
+            if (best < 0 || rank < bestRank) {
+                best = p;
+                bestRank = rank;
+            }
+        }
+        return best < 0 ? null : queues.get(best).poll();
+    }
+
+    private static final class Task {
+        final DbPriority priority;
+        final Runnable runnable;
+        final long enqueuedAt;
+
+        Task(DbPriority priority, Runnable runnable, long enqueuedAt) {
+            this.priority = priority;
+            this.runnable = runnable;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.roomshare.data.Money;
 import com.example.roomshare.data.RoomEntity;
 import com.example.roomshare.databinding.ActivityReportBinding;
 
@@ -17,6 +18,7 @@ import java.util.List;
 public class ReportActivity extends AppCompatActivity {
     private ActivityReportBinding binding;
     private DatabaseHelper dbHelper;
+    private final DbRequests requests = new DbRequests();
     private List<RoomEntity> rooms = new ArrayList<>();
     private ArrayAdapter<String> roomAdapter;
     private Long currentRoomId = null;
@@ -54,7 +56,7 @@ public class ReportActivity extends AppCompatActivity {
     }
 
     private void loadRooms() {
-        dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
+        requests.replace("rooms", dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
             @Override
             public void onSuccess(List<RoomEntity> result) {
                 runOnUiThread(() -> {
@@ -75,7 +77,7 @@ public class ReportActivity extends AppCompatActivity {
             public void onError(Exception e) {
                 runOnUiThread(() -> showStatus("Error loading rooms: " + e.getMessage()));
             }
-        });
+        }));
     }
 
     private void generateReport() {
@@ -84,7 +86,7 @@ public class ReportActivity extends AppCompatActivity {
             return;
         }
 
-        dbHelper.generateReport(currentRoomId, new DatabaseHelper.Callback<DatabaseHelper.Report>() {
+        requests.replace("report", dbHelper.generateReport(currentRoomId, new DatabaseHelper.Callback<DatabaseHelper.Report>() {
             @Override
             public void onSuccess(DatabaseHelper.Report result) {
                 runOnUiThread(() -> {
@@ -97,7 +99,7 @@ public class ReportActivity extends AppCompatActivity {
             public void onError(Exception e) {
                 runOnUiThread(() -> showStatus("Error generating report: " + e.getMessage()));
             }
-        });
+        }));
     }
 
     private void displayReport(DatabaseHelper.Report report) {
@@ -110,13 +112,13 @@ public class ReportActivity extends AppCompatActivity {
 
         sb.append("=== EXPENSE STATISTICS ===\n\n");
         sb.append("Total Expenses: ").append(report.totalExpenses).append("\n");
-        sb.append("Total Amount: $").append(String.format("%.2f", report.totalAmount)).append("\n");
-        sb.append("Average per Expense: $").append(String.format("%.2f", report.avgPerExpense)).append("\n\n");
+        sb.append("Total Amount: $").append(Money.format(report.totalAmountCents)).append("\n");
+        sb.append("Average per Expense: $").append(Money.format(report.avgPerExpenseCents)).append("\n\n");
 
         sb.append("=== FAIRNESS METRICS ===\n\n");
         if (!report.choresPerRoommate.isEmpty()) {
-            for (DatabaseHelper.Pair<String, Integer> pair : report.choresPerRoommate) {
-                sb.append(pair.first).append(" completed ").append(pair.second).append(" chores\n");
+            for (DatabaseHelper.ChoreCount count : report.choresPerRoommate) {
+                sb.append(count.name).append(" completed ").append(count.completed).append(" chores\n");
             }
         } else {
             sb.append("No completed chores to display\n");
@@ -129,5 +131,10 @@ public class ReportActivity extends AppCompatActivity {
         binding.textStatus.setText(message);
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
-}
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        requests.cancelAll();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.roomshare;
+
+import com.example.roomshare.data.RoomVersion;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last report per room, stored under the room's change counters at the time it was read. A
+ * lookup only hits while all three counters are unchanged, so there is nothing to invalidate:
+ * any write to the room's chores, expenses or roommates makes the entry unreachable.
+ */
+public final class ReportCache {
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final LatencyHistogram recompute = new LatencyHistogram();
+
+    /** The cached report for {@code version}, where a null version means the room has no counters yet. */
+    synchronized DatabaseHelper.Report get(long roomId, RoomVersion version) {
+        Entry entry = entries.get(roomId);
+        if (entry == null || !entry.matches(version)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.report;
+    }
+
+    synchronized void put(long roomId, RoomVersion version, DatabaseHelper.Report report, long computeNanos) {
+        entries.put(roomId, new Entry(version, report));
+        recompute.record(computeNanos);
+    }
+
+    synchronized void remove(long roomId) {
+        entries.remove(roomId);
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public double hitRate() {
+        long lookups = hits() + misses();
+        return lookups == 0 ? 0 : (double) hits() / lookups;
+    }
+
+    /** Time spent building reports on misses. */
+    public LatencyHistogram recomputeCost() {
+        return recompute;
+    }
+
+    void dump(StringBuilder out) {
+        out.append("reports hits=").append(hits()).append(" misses=").append(misses())
+                .append(String.format(Locale.US, " hitRate=%.2f", hitRate())).append('\n');
+        DbMetrics.appendHistogram(out, "  recompute", recompute);
+    }
+
+    private static final class Entry {
+        final long chores;
+        final long expenses;
+        final long roommates;
+        final DatabaseHelper.Report report;
+
+        Entry(RoomVersion version, DatabaseHelper.Report report) {
+            chores = version != null ? version.chores : 0;
+            expenses = version != null ? version.expenses : 0;
+            roommates = version != null ? version.roommates : 0;
+            this.report = report;
+        }
+
+        boolean matches(RoomVersion version) {
+            return version == null
+                    ? chores == 0 && expenses == 0 && roommates == 0
+                    : chores == version.chores && expenses == version.expenses && roommates == version.roommates;
+        }
+    }
+}
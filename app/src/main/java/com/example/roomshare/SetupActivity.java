@@ -9,6 +9,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.roomshare.data.Bill;
+import com.example.roomshare.data.Money;
 import com.example.roomshare.data.RoomEntity;
 import com.example.roomshare.data.Roommate;
 import com.example.roomshare.databinding.ActivitySetupBinding;
@@ -19,11 +20,13 @@ import java.util.List;
 public class SetupActivity extends AppCompatActivity {
     private ActivitySetupBinding binding;
     private DatabaseHelper dbHelper;
+    private final DbRequests requests = new DbRequests();
     private List<RoomEntity> rooms = new ArrayList<>();
     private List<Roommate> roommates = new ArrayList<>();
     private List<Bill> bills = new ArrayList<>();
     private ArrayAdapter<String> roomAdapter;
     private Long currentRoomId = null;
+    private LiveQuery<DatabaseHelper.RoomData<List<Bill>>> roomQuery;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -46,8 +49,7 @@ public class SetupActivity extends AppCompatActivity {
             @Override
             public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
                 if (position >= 0 && position < rooms.size()) {
-                    currentRoomId = rooms.get(position).id;
-                    loadRoomData();
+                    selectRoom(rooms.get(position).id);
                 }
             }
 
@@ -62,7 +64,7 @@ public class SetupActivity extends AppCompatActivity {
     }
 
     private void loadRooms() {
-        dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
+        requests.replace("rooms", dbHelper.getAllRooms(new DatabaseHelper.Callback<List<RoomEntity>>() {
             @Override
             public void onSuccess(List<RoomEntity> result) {
                 runOnUiThread(() -> {
@@ -74,8 +76,7 @@ public class SetupActivity extends AppCompatActivity {
                     roomAdapter.notifyDataSetChanged();
 
                     if (!rooms.isEmpty()) {
-                        currentRoomId = rooms.get(0).id;
-                        loadRoomData();
+                        selectRoom(rooms.get(0).id);
                     }
                 });
             }
@@ -84,41 +85,30 @@ public class SetupActivity extends AppCompatActivity {
             public void onError(Exception e) {
                 runOnUiThread(() -> showStatus("Error loading rooms: " + e.getMessage()));
             }
-        });
+        }));
     }
 
-    private void loadRoomData() {
-        if (currentRoomId == null) return;
-
-        dbHelper.getRoommates(currentRoomId, new DatabaseHelper.Callback<List<Roommate>>() {
-            @Override
-            public void onSuccess(List<Roommate> result) {
-                runOnUiThread(() -> {
-                    roommates = result;
-                    updateRoommateList();
-                });
-            }
-
-            @Override
-            public void onError(Exception e) {
-                runOnUiThread(() -> showStatus("Error loading roommates: " + e.getMessage()));
-            }
-        });
+    // The spinner's initial selection and loadRooms both pick a room at startup; only a
+    // different room needs a new subscription.
+    private void selectRoom(long roomId) {
+        if (roomQuery != null && currentRoomId != null && currentRoomId == roomId) return;
+        currentRoomId = roomId;
+        observeRoomData();
+    }
 
-        dbHelper.getBills(currentRoomId, new DatabaseHelper.Callback<List<Bill>>() {
-            @Override
-            public void onSuccess(List<Bill> result) {
-                runOnUiThread(() -> {
-                    bills = result;
-                    updateBillList();
-                });
-            }
+    private void observeRoomData() {
+        if (currentRoomId == null) return;
 
-            @Override
-            public void onError(Exception e) {
-                runOnUiThread(() -> showStatus("Error loading bills: " + e.getMessage()));
-            }
-        });
+        if (roomQuery != null) {
+            roomQuery.removeObservers(this);
+        }
+        roomQuery = dbHelper.observeRoomBills(currentRoomId);
+        roomQuery.observe(this, result -> {
+            roommates = result.roommates;
+            bills = result.items;
+            updateRoommateList();
+            updateBillList();
+        }, e -> showStatus("Error loading room: " + e.getMessage()));
     }
 
     private void addRoom() {
@@ -169,7 +159,6 @@ public class SetupActivity extends AppCompatActivity {
                     binding.editRoommateName.setText("");
                     binding.editRoommateEmail.setText("");
                     binding.editRoommatePhone.setText("");
-                    loadRoomData();
                 });
             }
 
@@ -198,27 +187,26 @@ public class SetupActivity extends AppCompatActivity {
             return;
         }
 
-        double amount;
+        long amountCents;
         try {
-            amount = Double.parseDouble(amountStr);
+            amountCents = Money.parse(amountStr);
         } catch (NumberFormatException e) {
             showStatus("Invalid amount");
             return;
         }
 
-        if (amount <= 0) {
+        if (amountCents <= 0) {
             showStatus("Amount must be positive");
             return;
         }
 
-        dbHelper.addBill(name, amount, currentRoomId, new DatabaseHelper.Callback<Long>() {
+        dbHelper.addBill(name, amountCents, currentRoomId, new DatabaseHelper.Callback<Long>() {
             @Override
             public void onSuccess(Long result) {
                 runOnUiThread(() -> {
                     showStatus("Bill added successfully");
                     binding.editBillName.setText("");
                     binding.editBillAmount.setText("");
-                    loadRoomData();
                 });
             }
 
@@ -243,7 +231,7 @@ public class SetupActivity extends AppCompatActivity {
     private void updateBillList() {
         StringBuilder text = new StringBuilder();
         for (Bill bill : bills) {
-            text.append(bill.name).append(" - $").append(String.format("%.2f", bill.amount)).append("\n");
+            text.append(bill.name).append(" - $").append(Money.format(bill.amountCents)).append("\n");
         }
         binding.textBillsList.setText(text.length() > 0 ? text.toString() : "No bills added yet");
     }
@@ -252,5 +240,10 @@ public class SetupActivity extends AppCompatActivity {
         binding.textStatus.setText(message);
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
-}
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        requests.cancelAll();
+    }
+}
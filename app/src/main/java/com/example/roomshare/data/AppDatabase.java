@@ -2,13 +2,20 @@ package com.example.roomshare.data;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.Locale;
 
 @Database(
-    entities = {RoomEntity.class, Roommate.class, Bill.class, Expense.class, Chore.class},
-    version = 1,
+    entities = {RoomEntity.class, Roommate.class, Bill.class, Expense.class, Chore.class, BalanceEntry.class,
+        ExpenseShare.class, BalanceCheckpoint.class, HistorySearchEntry.class,
+        RoomVersion.class, RoomStats.class, AssigneeStats.class},
+    version = 9,
     exportSchema = false
 )
 public abstract class AppDatabase extends RoomDatabase {
@@ -17,24 +24,338 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract BillDao billDao();
     public abstract ExpenseDao expenseDao();
     public abstract ChoreDao choreDao();
+    public abstract BalanceDao balanceDao();
+    public abstract ExpenseShareDao expenseShareDao();
+    public abstract BalanceCheckpointDao balanceCheckpointDao();
+    public abstract HistorySearchDao historySearchDao();
+    public abstract HistoryDao historyDao();
+    public abstract RoomVersionDao roomVersionDao();
+    public abstract RoomStatsDao roomStatsDao();
 
     private static volatile AppDatabase INSTANCE;
+    private SlowQueryLog slowQueryLog;
+
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `roommate_balances` (`roommate_id` INTEGER NOT NULL, "
+                    + "`room_id` INTEGER NOT NULL, `paid` REAL NOT NULL, `owed` REAL NOT NULL, `net` REAL NOT NULL, "
+                    + "PRIMARY KEY(`roommate_id`), "
+                    + "FOREIGN KEY(`roommate_id`) REFERENCES `roommates`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`room_id`) REFERENCES `rooms`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `idx_balance_room` ON `roommate_balances` (`room_id`)");
+            db.execSQL("INSERT INTO roommate_balances (roommate_id, room_id, paid, owed, net) "
+                    + "SELECT r.id, r.room_id, "
+                    + "COALESCE((SELECT SUM(e.amount) FROM expenses e WHERE e.payer_id = r.id), 0), "
+                    + "COALESCE((SELECT SUM(e.amount / e.split_count) FROM expenses e WHERE e.room_id = r.room_id), 0), "
+                    + "0 FROM roommates r");
+            db.execSQL("UPDATE roommate_balances SET net = paid - owed");
+        }
+    };
+
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `bills_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT, `amount_cents` INTEGER NOT NULL, `room_id` INTEGER NOT NULL, "
+                    + "FOREIGN KEY(`room_id`) REFERENCES `rooms`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("INSERT INTO bills_new (id, name, amount_cents, room_id) "
+                    + "SELECT id, name, CAST(ROUND(amount * 100) AS INTEGER), room_id FROM bills");
+            db.execSQL("DROP TABLE bills");
+            db.execSQL("ALTER TABLE bills_new RENAME TO bills");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_bills_room_id` ON `bills` (`room_id`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `expenses_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT, `amount_cents` INTEGER NOT NULL, `payer_id` INTEGER NOT NULL, "
+                    + "`room_id` INTEGER NOT NULL, `split_count` INTEGER NOT NULL, `date` TEXT, "
+                    + "FOREIGN KEY(`payer_id`) REFERENCES `roommates`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`room_id`) REFERENCES `rooms`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("INSERT INTO expenses_new (id, name, amount_cents, payer_id, room_id, split_count, date) "
+                    + "SELECT id, name, CAST(ROUND(amount * 100) AS INTEGER), payer_id, room_id, split_count, date "
+                    + "FROM expenses");
+            db.execSQL("DROP TABLE expenses");
+            db.execSQL("ALTER TABLE expenses_new RENAME TO expenses");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `idx_expense_room` ON `expenses` (`room_id`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_expenses_payer_id` ON `expenses` (`payer_id`)");
+
+            // Each expense is split evenly across the room's roommates in id order, with the
+            // leftover cents going to the lowest ids (see Money.evenShare).
+            db.execSQL("DROP TABLE IF EXISTS roommate_balances");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `roommate_balances` (`roommate_id` INTEGER NOT NULL, "
+                    + "`room_id` INTEGER NOT NULL, `paid_cents` INTEGER NOT NULL, `owed_cents` INTEGER NOT NULL, "
+                    + "`net_cents` INTEGER NOT NULL, PRIMARY KEY(`roommate_id`), "
+                    + "FOREIGN KEY(`roommate_id`) REFERENCES `roommates`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`room_id`) REFERENCES `rooms`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `idx_balance_room` ON `roommate_balances` (`room_id`)");
+            db.execSQL("INSERT INTO roommate_balances (roommate_id, room_id, paid_cents, owed_cents, net_cents) "
+                    + "SELECT m.id, m.room_id, "
+                    + "COALESCE((SELECT SUM(e.amount_cents) FROM expenses e WHERE e.payer_id = m.id), 0), "
+                    + "COALESCE((SELECT SUM(e.amount_cents / m.n + (CASE WHEN m.k < e.amount_cents % m.n THEN 1 ELSE 0 END)) "
+                    + "FROM expenses e WHERE e.room_id = m.room_id), 0), 0 "
+                    + "FROM (SELECT r.id, r.room_id, "
+                    + "(SELECT COUNT(*) FROM roommates r2 WHERE r2.room_id = r.room_id AND r2.id < r.id) AS k, "
+                    + "(SELECT COUNT(*) FROM roommates r2 WHERE r2.room_id = r.room_id) AS n "
+                    + "FROM roommates r) m");
+            db.execSQL("UPDATE roommate_balances SET net_cents = paid_cents - owed_cents");
+        }
+    };
+
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `expense_shares` (`expense_id` INTEGER NOT NULL, "
+                    + "`roommate_id` INTEGER NOT NULL, `share_cents` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`expense_id`, `roommate_id`), "
+                    + "FOREIGN KEY(`expense_id`) REFERENCES `expenses`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`roommate_id`) REFERENCES `roommates`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `idx_share_roommate` ON `expense_shares` (`roommate_id`)");
+            // Materialize the even split the version 3 ledger was built from
+            db.execSQL("INSERT INTO expense_shares (expense_id, roommate_id, share_cents) "
+                    + "SELECT e.id, m.id, e.amount_cents / m.n + (CASE WHEN m.k < e.amount_cents % m.n THEN 1 ELSE 0 END) "
+                    + "FROM expenses e JOIN (SELECT r.id, r.room_id, "
+                    + "(SELECT COUNT(*) FROM roommates r2 WHERE r2.room_id = r.room_id AND r2.id < r.id) AS k, "
+                    + "(SELECT COUNT(*) FROM roommates r2 WHERE r2.room_id = r.room_id) AS n "
+                    + "FROM roommates r) m ON m.room_id = e.room_id");
+        }
+    };
+
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `balance_checkpoints` (`roommate_id` INTEGER NOT NULL, "
+                    + "`room_id` INTEGER NOT NULL, `watermark` INTEGER NOT NULL, `paid_cents` INTEGER NOT NULL, "
+                    + "`owed_cents` INTEGER NOT NULL, PRIMARY KEY(`roommate_id`), "
+                    + "FOREIGN KEY(`roommate_id`) REFERENCES `roommates`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`room_id`) REFERENCES `rooms`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `idx_checkpoint_room` ON `balance_checkpoints` (`room_id`)");
+        }
+    };
+
+    // History pages walk (room_id, date) in order instead of sorting the whole room
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS `idx_expense_room`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `idx_expense_room_date` ON `expenses` (`room_id`, `date`)");
+            db.execSQL("DROP INDEX IF EXISTS `idx_chore_room`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `idx_chore_room_date` ON `chores` (`room_id`, `date`)");
+        }
+    };
+
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `history_fts` USING FTS4(`name` TEXT, `person` TEXT, "
+                    + "`room_id` INTEGER NOT NULL, tokenize=unicode61, notindexed=`room_id`, prefix=`2,3`)");
+            db.execSQL("INSERT INTO history_fts (rowid, name, person, room_id) "
+                    + "SELECT c.id * 2, c.name, r.name, c.room_id FROM chores c "
+                    + "LEFT JOIN roommates r ON r.id = c.assigned_to_id");
+            db.execSQL("INSERT INTO history_fts (rowid, name, person, room_id) "
+                    + "SELECT e.id * 2 + 1, e.name, r.name, e.room_id FROM expenses e "
+                    + "LEFT JOIN roommates r ON r.id = e.payer_id");
+        }
+    };
+
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `room_versions` (`room_id` INTEGER NOT NULL, "
+                    + "`chores` INTEGER NOT NULL, `expenses` INTEGER NOT NULL, `roommates` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`room_id`))");
+        }
+    };
+
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `room_stats` (`room_id` INTEGER NOT NULL, "
+                    + "`chore_count` INTEGER NOT NULL, `completed_chores` INTEGER NOT NULL, "
+                    + "`expense_count` INTEGER NOT NULL, `expense_cents` INTEGER NOT NULL, PRIMARY KEY(`room_id`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `assignee_stats` (`roommate_id` INTEGER NOT NULL, "
+                    + "`room_id` INTEGER NOT NULL, `chore_count` INTEGER NOT NULL, "
+                    + "`completed_chores` INTEGER NOT NULL, PRIMARY KEY(`roommate_id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `idx_assignee_stats_room` ON `assignee_stats` (`room_id`)");
+            db.execSQL("INSERT INTO room_stats (room_id, chore_count, completed_chores, expense_count, expense_cents) "
+                    + "SELECT r.id, "
+                    + "(SELECT COUNT(*) FROM chores c WHERE c.room_id = r.id), "
+                    + "(SELECT COUNT(*) FROM chores c WHERE c.room_id = r.id AND c.completed = 1), "
+                    + "(SELECT COUNT(*) FROM expenses e WHERE e.room_id = r.id), "
+                    + "(SELECT COALESCE(SUM(e.amount_cents), 0) FROM expenses e WHERE e.room_id = r.id) "
+                    + "FROM rooms r");
+            db.execSQL("INSERT INTO assignee_stats (roommate_id, room_id, chore_count, completed_chores) "
+                    + "SELECT c.assigned_to_id, c.room_id, COUNT(*), SUM(c.completed = 1) FROM chores c "
+                    + "WHERE c.assigned_to_id IS NOT NULL GROUP BY c.assigned_to_id");
+        }
+    };
+
+    // A checkpoint only stays valid while nothing at or below its watermark changes, so any
+    // edit to an older expense or its shares drops the room's checkpoints.
+    static final String[] TRIGGERS = {
+        "CREATE TRIGGER IF NOT EXISTS `trg_checkpoint_expense_update` AFTER UPDATE ON `expenses` BEGIN "
+            + "DELETE FROM balance_checkpoints WHERE (room_id = OLD.room_id AND watermark >= OLD.id) "
+            + "OR (room_id = NEW.room_id AND watermark >= NEW.id); END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_checkpoint_expense_delete` AFTER DELETE ON `expenses` BEGIN "
+            + "DELETE FROM balance_checkpoints WHERE room_id = OLD.room_id AND watermark >= OLD.id; END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_checkpoint_share_insert` AFTER INSERT ON `expense_shares` BEGIN "
+            + "DELETE FROM balance_checkpoints WHERE watermark >= NEW.expense_id "
+            + "AND room_id = (SELECT room_id FROM expenses WHERE id = NEW.expense_id); END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_checkpoint_share_update` AFTER UPDATE ON `expense_shares` BEGIN "
+            + "DELETE FROM balance_checkpoints WHERE (watermark >= OLD.expense_id "
+            + "AND room_id = (SELECT room_id FROM expenses WHERE id = OLD.expense_id)) "
+            + "OR (watermark >= NEW.expense_id "
+            + "AND room_id = (SELECT room_id FROM expenses WHERE id = NEW.expense_id)); END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_checkpoint_share_delete` AFTER DELETE ON `expense_shares` BEGIN "
+            + "DELETE FROM balance_checkpoints WHERE watermark >= OLD.expense_id "
+            + "AND room_id = (SELECT room_id FROM expenses WHERE id = OLD.expense_id); END",
+
+        // history_fts mirrors chore and expense names together with the roommate each one
+        // resolves to, so renaming a roommate rewrites the person column of their rows.
+        "CREATE TRIGGER IF NOT EXISTS `trg_fts_chore_insert` AFTER INSERT ON `chores` BEGIN "
+            + "INSERT INTO history_fts (rowid, name, person, room_id) VALUES (NEW.id * 2, NEW.name, "
+            + "(SELECT name FROM roommates WHERE id = NEW.assigned_to_id), NEW.room_id); END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_fts_chore_update` AFTER UPDATE OF name, assigned_to_id, room_id ON `chores` "
+            + "BEGIN DELETE FROM history_fts WHERE rowid = OLD.id * 2; "
+            + "INSERT INTO history_fts (rowid, name, person, room_id) VALUES (NEW.id * 2, NEW.name, "
+            + "(SELECT name FROM roommates WHERE id = NEW.assigned_to_id), NEW.room_id); END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_fts_chore_delete` AFTER DELETE ON `chores` BEGIN "
+            + "DELETE FROM history_fts WHERE rowid = OLD.id * 2; END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_fts_expense_insert` AFTER INSERT ON `expenses` BEGIN "
+            + "INSERT INTO history_fts (rowid, name, person, room_id) VALUES (NEW.id * 2 + 1, NEW.name, "
+            + "(SELECT name FROM roommates WHERE id = NEW.payer_id), NEW.room_id); END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_fts_expense_update` AFTER UPDATE OF name, payer_id, room_id ON `expenses` "
+            + "BEGIN DELETE FROM history_fts WHERE rowid = OLD.id * 2 + 1; "
+            + "INSERT INTO history_fts (rowid, name, person, room_id) VALUES (NEW.id * 2 + 1, NEW.name, "
+            + "(SELECT name FROM roommates WHERE id = NEW.payer_id), NEW.room_id); END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_fts_expense_delete` AFTER DELETE ON `expenses` BEGIN "
+            + "DELETE FROM history_fts WHERE rowid = OLD.id * 2 + 1; END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_fts_roommate_rename` AFTER UPDATE OF name ON `roommates` BEGIN "
+            + "UPDATE history_fts SET person = NEW.name WHERE rowid IN "
+            + "(SELECT id * 2 FROM chores WHERE assigned_to_id = NEW.id "
+            + "UNION ALL SELECT id * 2 + 1 FROM expenses WHERE payer_id = NEW.id); END",
+
+        versionTrigger("chores", "INSERT", "NEW.room_id"),
+        versionTrigger("chores", "UPDATE", "OLD.room_id, NEW.room_id"),
+        versionTrigger("chores", "DELETE", "OLD.room_id"),
+        versionTrigger("expenses", "INSERT", "NEW.room_id"),
+        versionTrigger("expenses", "UPDATE", "OLD.room_id, NEW.room_id"),
+        versionTrigger("expenses", "DELETE", "OLD.room_id"),
+        versionTrigger("roommates", "INSERT", "NEW.room_id"),
+        versionTrigger("roommates", "UPDATE", "OLD.room_id, NEW.room_id"),
+        versionTrigger("roommates", "DELETE", "OLD.room_id"),
+
+        // room_stats and assignee_stats hold running totals: each trigger takes the old row
+        // out and puts the new one in. Only the adding side creates missing rows.
+        "CREATE TRIGGER IF NOT EXISTS `trg_stats_chore_insert` AFTER INSERT ON `chores` BEGIN "
+            + choreStats("NEW", "+") + "END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_stats_chore_update` "
+            + "AFTER UPDATE OF completed, assigned_to_id, room_id ON `chores` BEGIN "
+            + choreStats("OLD", "-") + choreStats("NEW", "+") + "END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_stats_chore_delete` AFTER DELETE ON `chores` BEGIN "
+            + choreStats("OLD", "-") + "END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_stats_expense_insert` AFTER INSERT ON `expenses` BEGIN "
+            + expenseStats("NEW", "+") + "END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_stats_expense_update` AFTER UPDATE OF amount_cents, room_id ON `expenses` "
+            + "BEGIN " + expenseStats("OLD", "-") + expenseStats("NEW", "+") + "END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_stats_expense_delete` AFTER DELETE ON `expenses` BEGIN "
+            + expenseStats("OLD", "-") + "END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_stats_roommate_delete` AFTER DELETE ON `roommates` BEGIN "
+            + "DELETE FROM assignee_stats WHERE roommate_id = OLD.id; END",
+        "CREATE TRIGGER IF NOT EXISTS `trg_stats_room_delete` AFTER DELETE ON `rooms` BEGIN "
+            + "DELETE FROM room_stats WHERE room_id = OLD.id; "
+            + "DELETE FROM assignee_stats WHERE room_id = OLD.id; "
+            + "DELETE FROM room_versions WHERE room_id = OLD.id; END"
+    };
+
+    private static String choreStats(String row, String sign) {
+        String statements = "";
+        if (sign.equals("+")) {
+            statements += ensureRoomStats(row)
+                    + "INSERT INTO assignee_stats (roommate_id, room_id, chore_count, completed_chores) "
+                    + "SELECT " + row + ".assigned_to_id, " + row + ".room_id, 0, 0 "
+                    + "WHERE " + row + ".assigned_to_id IS NOT NULL AND NOT EXISTS "
+                    + "(SELECT 1 FROM assignee_stats WHERE roommate_id = " + row + ".assigned_to_id); ";
+        }
+        String delta = "chore_count = chore_count " + sign + " 1, "
+                + "completed_chores = completed_chores " + sign + " (" + row + ".completed = 1) ";
+        return statements
+                + "UPDATE room_stats SET " + delta + "WHERE room_id = " + row + ".room_id; "
+                + "UPDATE assignee_stats SET " + delta + "WHERE roommate_id = " + row + ".assigned_to_id; ";
+    }
+
+    private static String expenseStats(String row, String sign) {
+        return (sign.equals("+") ? ensureRoomStats(row) : "")
+                + "UPDATE room_stats SET expense_count = expense_count " + sign + " 1, "
+                + "expense_cents = expense_cents " + sign + " " + row + ".amount_cents "
+                + "WHERE room_id = " + row + ".room_id; ";
+    }
+
+    private static String ensureRoomStats(String row) {
+        return "INSERT INTO room_stats (room_id, chore_count, completed_chores, expense_count, expense_cents) "
+                + "SELECT " + row + ".room_id, 0, 0, 0, 0 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM room_stats WHERE room_id = " + row + ".room_id); ";
+    }
+
+    // Bumps the table's counter in room_versions for every room the changed row belongs to.
+    // Missing rows are added with NOT EXISTS rather than INSERT OR IGNORE, whose conflict
+    // clause is overridden when the trigger runs from a foreign key action.
+    private static String versionTrigger(String table, String event, String rooms) {
+        StringBuilder sql = new StringBuilder("CREATE TRIGGER IF NOT EXISTS `trg_version_")
+                .append(table).append('_').append(event.toLowerCase(Locale.ROOT))
+                .append("` AFTER ").append(event).append(" ON `").append(table).append("` BEGIN ");
+        for (String room : rooms.split(", ")) {
+            sql.append("INSERT INTO room_versions (room_id, chores, expenses, roommates) SELECT ")
+                    .append(room).append(", 0, 0, 0 WHERE NOT EXISTS (SELECT 1 FROM room_versions WHERE room_id = ")
+                    .append(room).append("); ");
+        }
+        return sql.append("UPDATE room_versions SET ").append(table).append(" = ").append(table)
+                .append(" + 1 WHERE room_id IN (").append(rooms).append("); END").toString();
+    }
+
+    // Runs on every open rather than in onCreate so the triggers also come back after a
+    // destructive migration recreates the tables. Public so test and benchmark databases
+    // can be built with the same triggers as the app's.
+    public static final Callback CREATE_TRIGGERS = new Callback() {
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            for (String sql : TRIGGERS) {
+                db.execSQL(sql);
+            }
+        }
+    };
+
+    /** The slow query log, or null unless it was enabled when the database was opened. */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
 
     public static AppDatabase getDatabase(Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
+                    RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(
                         context.getApplicationContext(),
                         AppDatabase.class,
                         "roomshare.db"
                     )
-                    .fallbackToDestructiveMigration()
-                    .build();
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6,
+                        MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9)
+                    .addCallback(CREATE_TRIGGERS)
+                    .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                    .fallbackToDestructiveMigration();
+                    SlowQueryLog slowQueryLog = null;
+                    if (SlowQueryLog.isEnabled(context)) {
+                        slowQueryLog = new SlowQueryLog(SlowQueryLog.DEFAULT_THRESHOLD_MILLIS);
+                        builder.setQueryCallback(slowQueryLog, Runnable::run);
+                    }
+                    AppDatabase database = builder.build();
+                    if (slowQueryLog != null) {
+                        slowQueryLog.attach(database);
+                        database.slowQueryLog = slowQueryLog;
+                    }
+                    INSTANCE = database;
                 }
             }
         }
         return INSTANCE;
     }
 }
-
@@ -0,0 +1,39 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/** Chores assigned to one roommate and how many of them are done, kept current by triggers. */
+@Entity(
+    tableName = "assignee_stats",
+    indices = {@Index(value = "room_id", name = "idx_assignee_stats_room")}
+)
+public class AssigneeStats {
+    @PrimaryKey
+    @ColumnInfo(name = "roommate_id")
+    public long roommateId;
+
+    @ColumnInfo(name = "room_id")
+    public long roomId;
+
+    @ColumnInfo(name = "chore_count")
+    public long choreCount;
+
+    @ColumnInfo(name = "completed_chores")
+    public long completedChores;
+
+    public AssigneeStats(long roommateId, long roomId, long choreCount, long completedChores) {
+        this.roommateId = roommateId;
+        this.roomId = roomId;
+        this.choreCount = choreCount;
+        this.completedChores = completedChores;
+    }
+
+    @Ignore
+    public AssigneeStats(long roommateId, long roomId) {
+        this(roommateId, roomId, 0, 0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.roomshare.data;
+
+/**
+ * Running paid/owed totals for one room, kept in primitive arrays indexed by
+ * {@link RoommateIndex} slot. Adding to a total does not allocate.
+ */
+public final class BalanceAccumulator {
+    private final RoommateIndex index;
+    private final long[] paid;
+    private final long[] owed;
+
+    public BalanceAccumulator(RoommateIndex index) {
+        this.index = index;
+        this.paid = new long[index.size()];
+        this.owed = new long[index.size()];
+    }
+
+    public RoommateIndex index() {
+        return index;
+    }
+
+    public void addPaid(long payerId, long cents) {
+        int payer = index.slotOf(payerId);
+        if (payer >= 0) {
+            paid[payer] += cents;
+        }
+    }
+
+    public void addOwed(long roommateId, long cents) {
+        int slot = index.slotOf(roommateId);
+        if (slot >= 0) {
+            owed[slot] += cents;
+        }
+    }
+
+    public long paid(int slot) {
+        return paid[slot];
+    }
+
+    public long owed(int slot) {
+        return owed[slot];
+    }
+
+    public long net(int slot) {
+        return paid[slot] - owed[slot];
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A roommate's paid/owed totals over every expense of the room with id up to
+ * {@code watermark}. All rows of one room share the same watermark.
+ */
+@Entity(
+    tableName = "balance_checkpoints",
+    foreignKeys = {
+        @ForeignKey(
+            entity = Roommate.class,
+            parentColumns = "id",
+            childColumns = "roommate_id",
+            onDelete = ForeignKey.CASCADE
+        ),
+        @ForeignKey(
+            entity = RoomEntity.class,
+            parentColumns = "id",
+            childColumns = "room_id",
+            onDelete = ForeignKey.CASCADE
+        )
+    },
+    indices = {@Index(value = "room_id", name = "idx_checkpoint_room")}
+)
+public class BalanceCheckpoint {
+    @PrimaryKey
+    @ColumnInfo(name = "roommate_id")
+    public long roommateId;
+
+    @ColumnInfo(name = "room_id")
+    public long roomId;
+
+    public long watermark;
+
+    @ColumnInfo(name = "paid_cents")
+    public long paidCents;
+
+    @ColumnInfo(name = "owed_cents")
+    public long owedCents;
+
+    public BalanceCheckpoint(long roommateId, long roomId, long watermark, long paidCents, long owedCents) {
+        this.roommateId = roommateId;
+        this.roomId = roomId;
+        this.watermark = watermark;
+        this.paidCents = paidCents;
+        this.owedCents = owedCents;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.roomshare.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface BalanceCheckpointDao {
+    @Query("SELECT * FROM balance_checkpoints WHERE room_id = :roomId")
+    List<BalanceCheckpoint> getCheckpoints(long roomId);
+
+    @Query("SELECT COALESCE(MAX(watermark), 0) FROM balance_checkpoints WHERE room_id = :roomId")
+    long getWatermark(long roomId);
+
+    @Insert
+    void insertCheckpoints(List<BalanceCheckpoint> checkpoints);
+
+    @Query("DELETE FROM balance_checkpoints WHERE room_id = :roomId")
+    void deleteCheckpoints(long roomId);
+}
@@ -0,0 +1,37 @@
+package com.example.roomshare.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface BalanceDao {
+    @Query("SELECT * FROM roommate_balances WHERE room_id = :roomId")
+    List<BalanceEntry> getBalancesByRoom(long roomId);
+
+    @Query("SELECT r.*, COALESCE(b.paid_cents, 0) AS paid_cents, COALESCE(b.owed_cents, 0) AS owed_cents, "
+            + "COALESCE(b.net_cents, 0) AS net_cents "
+            + "FROM roommates r LEFT JOIN roommate_balances b ON b.roommate_id = r.id "
+            + "WHERE r.room_id = :roomId ORDER BY r.name")
+    List<RoommateLedgerRow> getLedgerRows(long roomId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertBalance(BalanceEntry entry);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertBalances(List<BalanceEntry> entries);
+
+    @Query("UPDATE roommate_balances SET paid_cents = paid_cents + :cents, net_cents = net_cents + :cents "
+            + "WHERE roommate_id = :roommateId")
+    int addPaid(long roommateId, long cents);
+
+    @Query("UPDATE roommate_balances SET owed_cents = owed_cents + :cents, net_cents = net_cents - :cents "
+            + "WHERE roommate_id = :roommateId")
+    int addOwed(long roommateId, long cents);
+
+    @Query("DELETE FROM roommate_balances WHERE room_id = :roomId")
+    void deleteBalancesByRoom(long roomId);
+}
@@ -0,0 +1,57 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+@Entity(
+    tableName = "roommate_balances",
+    foreignKeys = {
+        @ForeignKey(
+            entity = Roommate.class,
+            parentColumns = "id",
+            childColumns = "roommate_id",
+            onDelete = ForeignKey.CASCADE
+        ),
+        @ForeignKey(
+            entity = RoomEntity.class,
+            parentColumns = "id",
+            childColumns = "room_id",
+            onDelete = ForeignKey.CASCADE
+        )
+    },
+    indices = {@Index(value = "room_id", name = "idx_balance_room")}
+)
+public class BalanceEntry {
+    @PrimaryKey
+    @ColumnInfo(name = "roommate_id")
+    public long roommateId;
+
+    @ColumnInfo(name = "room_id")
+    public long roomId;
+
+    @ColumnInfo(name = "paid_cents")
+    public long paidCents;
+
+    @ColumnInfo(name = "owed_cents")
+    public long owedCents;
+
+    @ColumnInfo(name = "net_cents")
+    public long netCents;
+
+    public BalanceEntry(long roommateId, long roomId, long paidCents, long owedCents, long netCents) {
+        this.roommateId = roommateId;
+        this.roomId = roomId;
+        this.paidCents = paidCents;
+        this.owedCents = owedCents;
+        this.netCents = netCents;
+    }
+
+    @Ignore
+    public BalanceEntry(long roommateId, long roomId) {
+        this(roommateId, roomId, 0, 0, 0);
+    }
+}
@@ -23,23 +23,24 @@ public class Bill {
     
     public String name;
     
-    public double amount;
+    @ColumnInfo(name = "amount_cents")
+    public long amountCents;
     
     @ColumnInfo(name = "room_id")
     public long roomId;
 
-    public Bill(long id, String name, double amount, long roomId) {
+    public Bill(long id, String name, long amountCents, long roomId) {
         this.id = id;
         this.name = name;
-        this.amount = amount;
+        this.amountCents = amountCents;
         this.roomId = roomId;
     }
 
     @Ignore
-    public Bill(String name, double amount, long roomId) {
+    public Bill(String name, long amountCents, long roomId) {
         this.id = 0;
         this.name = name;
-        this.amount = amount;
+        this.amountCents = amountCents;
         this.roomId = roomId;
     }
 }
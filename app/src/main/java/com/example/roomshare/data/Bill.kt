@@ -19,11 +19,12 @@ data class Bill(
     @PrimaryKey(autoGenerate = true)
     val id: Long,
     val name: String,
-    val amount: Double,
+    @ColumnInfo(name = "amount_cents")
+    val amount_cents: Long,
     @ColumnInfo(name = "room_id")
     val room_id: Long
 ) {
-    constructor(name: String, amount: Double, room_id: Long) : 
-        this(0, name, amount, room_id)
+    constructor(name: String, amount_cents: Long, room_id: Long) : 
+        this(0, name, amount_cents, room_id)
 }
 
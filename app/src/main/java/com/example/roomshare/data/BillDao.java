@@ -15,6 +15,9 @@ public interface BillDao {
     @Insert
     long insertBill(Bill bill);
 
+    @Insert
+    List<Long> insertBills(List<Bill> bills);
+
     @Delete
     void deleteBill(Bill bill);
 }
@@ -24,7 +24,7 @@ import androidx.room.PrimaryKey;
         )
     },
     indices = {
-        @Index(value = "room_id", name = "idx_chore_room"),
+        @Index(value = {"room_id", "date"}, name = "idx_chore_room_date"),
         @Index(value = "assigned_to_id")
     }
 )
@@ -1,5 +1,7 @@
 package com.example.roomshare.data;
 
+import android.database.Cursor;
+
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.Query;
@@ -12,12 +14,31 @@ public interface ChoreDao {
     @Query("SELECT * FROM chores WHERE room_id = :roomId ORDER BY date DESC, id DESC")
     List<Chore> getChoresByRoom(long roomId);
 
+    @Query("SELECT c.id, c.name, c.completed, c.date, r.name AS assignee_name "
+            + "FROM chores c LEFT JOIN roommates r ON r.id = c.assigned_to_id "
+            + "WHERE c.room_id = :roomId ORDER BY c.date DESC, c.id DESC")
+    List<ChoreListItem> getChoreListItems(long roomId);
+
+    @Query("SELECT c.id, c.name, c.completed, c.date, r.name AS assignee_name "
+            + "FROM chores c LEFT JOIN roommates r ON r.id = c.assigned_to_id WHERE c.id IN (:ids)")
+    List<ChoreListItem> getChoreListItemsByIds(List<Long> ids);
+
     @Query("SELECT * FROM chores WHERE id = :id AND room_id = :roomId")
     Chore getChoreById(long id, long roomId);
 
+    @Query("SELECT assigned_to_id AS assignedToId, completed, COUNT(*) AS choreCount "
+            + "FROM chores WHERE room_id = :roomId GROUP BY assigned_to_id, completed")
+    List<ChoreTally> getChoreTallies(long roomId);
+
+    @Query("SELECT assigned_to_id, completed FROM chores WHERE room_id = :roomId")
+    Cursor streamChoreStatus(long roomId);
+
     @Insert
     long insertChore(Chore chore);
 
+    @Insert
+    List<Long> insertChores(List<Chore> chores);
+
     @Update
     void updateChore(Chore chore);
 }
@@ -0,0 +1,20 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * The columns a chore list shows, with the assignee's name joined in. Null assignee
+ * name means the chore is unassigned.
+ */
+public class ChoreListItem {
+    public long id;
+
+    public String name;
+
+    public int completed;
+
+    public String date;
+
+    @ColumnInfo(name = "assignee_name")
+    public String assigneeName;
+}
@@ -0,0 +1,7 @@
+package com.example.roomshare.data;
+
+public class ChoreTally {
+    public Long assignedToId;
+    public int completed;
+    public int choreCount;
+}
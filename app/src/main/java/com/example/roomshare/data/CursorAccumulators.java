@@ -0,0 +1,60 @@
+package com.example.roomshare.data;
+
+import android.database.Cursor;
+
+/**
+ * Feeds query results into the accumulators one row at a time, so a room's history is
+ * never held on the heap as a list. The cursor only keeps one window of rows in memory.
+ */
+public final class CursorAccumulators {
+    private CursorAccumulators() {}
+
+    /** Rows with {@code roommate_id} and {@code cents} columns. */
+    public static long addPaid(Cursor rows, BalanceAccumulator accumulator) {
+        int roommateColumn = rows.getColumnIndexOrThrow("roommate_id");
+        int centsColumn = rows.getColumnIndexOrThrow("cents");
+        long count = 0;
+        while (rows.moveToNext()) {
+            accumulator.addPaid(rows.getLong(roommateColumn), rows.getLong(centsColumn));
+            count++;
+        }
+        return count;
+    }
+
+    /** Rows with {@code roommate_id} and {@code cents} columns. */
+    public static long addOwed(Cursor rows, BalanceAccumulator accumulator) {
+        int roommateColumn = rows.getColumnIndexOrThrow("roommate_id");
+        int centsColumn = rows.getColumnIndexOrThrow("cents");
+        long count = 0;
+        while (rows.moveToNext()) {
+            accumulator.addOwed(rows.getLong(roommateColumn), rows.getLong(centsColumn));
+            count++;
+        }
+        return count;
+    }
+
+    /** Rows with {@code assigned_to_id} and {@code completed} columns. */
+    public static long addChores(Cursor rows, ReportAccumulator accumulator) {
+        int assigneeColumn = rows.getColumnIndexOrThrow("assigned_to_id");
+        int completedColumn = rows.getColumnIndexOrThrow("completed");
+        long count = 0;
+        while (rows.moveToNext()) {
+            boolean assigned = !rows.isNull(assigneeColumn);
+            accumulator.addChores(assigned, assigned ? rows.getLong(assigneeColumn) : 0,
+                    rows.getInt(completedColumn) == 1, 1);
+            count++;
+        }
+        return count;
+    }
+
+    /** Rows with a {@code cents} column. */
+    public static long addExpenses(Cursor rows, ReportAccumulator accumulator) {
+        int centsColumn = rows.getColumnIndexOrThrow("cents");
+        long count = 0;
+        while (rows.moveToNext()) {
+            accumulator.addExpenses(1, rows.getLong(centsColumn));
+            count++;
+        }
+        return count;
+    }
+}
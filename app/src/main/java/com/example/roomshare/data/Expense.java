@@ -24,7 +24,7 @@ import androidx.room.PrimaryKey;
         )
     },
     indices = {
-        @Index(value = "room_id", name = "idx_expense_room"),
+        @Index(value = {"room_id", "date"}, name = "idx_expense_room_date"),
         @Index(value = "payer_id")
     }
 )
@@ -34,7 +34,8 @@ public class Expense {
     
     public String name;
     
-    public double amount;
+    @ColumnInfo(name = "amount_cents")
+    public long amountCents;
     
     @ColumnInfo(name = "payer_id")
     public long payerId;
@@ -47,10 +48,10 @@ public class Expense {
     
     public String date;
 
-    public Expense(long id, String name, double amount, long payerId, long roomId, int splitCount, String date) {
+    public Expense(long id, String name, long amountCents, long payerId, long roomId, int splitCount, String date) {
         this.id = id;
         this.name = name;
-        this.amount = amount;
+        this.amountCents = amountCents;
         this.payerId = payerId;
         this.roomId = roomId;
         this.splitCount = splitCount;
@@ -58,10 +59,10 @@ public class Expense {
     }
 
     @Ignore
-    public Expense(String name, double amount, long payerId, long roomId, int splitCount, String date) {
+    public Expense(String name, long amountCents, long payerId, long roomId, int splitCount, String date) {
         this.id = 0;
         this.name = name;
-        this.amount = amount;
+        this.amountCents = amountCents;
         this.payerId = payerId;
         this.roomId = roomId;
         this.splitCount = splitCount;
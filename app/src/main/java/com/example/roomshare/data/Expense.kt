@@ -23,7 +23,7 @@ import androidx.room.PrimaryKey
         )
     ],
     indices = [
-        Index(value = ["room_id"], name = "idx_expense_room"),
+        Index(value = ["room_id", "date"], name = "idx_expense_room_date"),
         Index(value = ["payer_id"])
     ]
 )
@@ -31,7 +31,8 @@ data class Expense(
     @PrimaryKey(autoGenerate = true)
     val id: Long,
     val name: String,
-    val amount: Double,
+    @ColumnInfo(name = "amount_cents")
+    val amount_cents: Long,
     @ColumnInfo(name = "payer_id")
     val payer_id: Long,
     @ColumnInfo(name = "room_id")
@@ -40,7 +41,7 @@ data class Expense(
     val split_count: Int,
     val date: String
 ) {
-    constructor(name: String, amount: Double, payer_id: Long, room_id: Long, split_count: Int, date: String) : 
-        this(0, name, amount, payer_id, room_id, split_count, date)
+    constructor(name: String, amount_cents: Long, payer_id: Long, room_id: Long, split_count: Int, date: String) : 
+        this(0, name, amount_cents, payer_id, room_id, split_count, date)
 }
 
@@ -1,5 +1,7 @@
 package com.example.roomshare.data;
 
+import android.database.Cursor;
+
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -12,9 +14,48 @@ public interface ExpenseDao {
     @Query("SELECT * FROM expenses WHERE room_id = :roomId ORDER BY date DESC, id DESC")
     List<Expense> getExpensesByRoom(long roomId);
 
+    @Query("SELECT e.id, e.name, e.amount_cents, e.split_count, e.date, r.name AS payer_name, "
+            + "(SELECT MIN(s.share_cents) FROM expense_shares s WHERE s.expense_id = e.id) AS min_share_cents, "
+            + "(SELECT MAX(s.share_cents) FROM expense_shares s WHERE s.expense_id = e.id) AS max_share_cents "
+            + "FROM expenses e LEFT JOIN roommates r ON r.id = e.payer_id "
+            + "WHERE e.room_id = :roomId ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseListItem> getExpenseListItems(long roomId);
+
+    @Query("SELECT e.id, e.name, e.amount_cents, e.split_count, e.date, r.name AS payer_name, "
+            + "(SELECT MIN(s.share_cents) FROM expense_shares s WHERE s.expense_id = e.id) AS min_share_cents, "
+            + "(SELECT MAX(s.share_cents) FROM expense_shares s WHERE s.expense_id = e.id) AS max_share_cents "
+            + "FROM expenses e LEFT JOIN roommates r ON r.id = e.payer_id WHERE e.id IN (:ids)")
+    List<ExpenseListItem> getExpenseListItemsByIds(List<Long> ids);
+
+    @Query("SELECT COUNT(*) AS expenseCount, COALESCE(SUM(amount_cents), 0) AS totalCents "
+            + "FROM expenses WHERE room_id = :roomId")
+    ExpenseTotals getExpenseTotals(long roomId);
+
+    @Query("SELECT payer_id AS roommateId, SUM(amount_cents) AS totalCents "
+            + "FROM expenses WHERE room_id = :roomId AND id > :watermark GROUP BY payer_id")
+    List<RoommateTotal> getPaidTotalsSince(long roomId, long watermark);
+
+    @Query("SELECT COUNT(*) FROM expenses WHERE room_id = :roomId AND id > :watermark")
+    int countExpensesSince(long roomId, long watermark);
+
+    @Query("SELECT COALESCE(MAX(id), 0) FROM expenses WHERE room_id = :roomId")
+    long getLatestExpenseId(long roomId);
+
+    @Query("SELECT * FROM expenses WHERE id = :id")
+    Expense getExpenseById(long id);
+
+    @Query("SELECT payer_id AS roommate_id, amount_cents AS cents FROM expenses WHERE room_id = :roomId")
+    Cursor streamPaid(long roomId);
+
+    @Query("SELECT amount_cents AS cents FROM expenses WHERE room_id = :roomId")
+    Cursor streamAmounts(long roomId);
+
     @Insert
     long insertExpense(Expense expense);
 
+    @Insert
+    List<Long> insertExpenses(List<Expense> expenses);
+
     @Delete
     void deleteExpense(Expense expense);
 }
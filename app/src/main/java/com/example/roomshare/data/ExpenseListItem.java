@@ -0,0 +1,31 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * The columns an expense list shows, with the payer's name joined in. Null payer name
+ * means the payer row no longer exists. The share bounds come from expense_shares and
+ * are null for an expense without share rows.
+ */
+public class ExpenseListItem {
+    public long id;
+
+    public String name;
+
+    @ColumnInfo(name = "amount_cents")
+    public long amountCents;
+
+    @ColumnInfo(name = "split_count")
+    public int splitCount;
+
+    public String date;
+
+    @ColumnInfo(name = "payer_name")
+    public String payerName;
+
+    @ColumnInfo(name = "min_share_cents")
+    public Long minShareCents;
+
+    @ColumnInfo(name = "max_share_cents")
+    public Long maxShareCents;
+}
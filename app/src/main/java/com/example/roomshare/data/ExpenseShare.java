@@ -0,0 +1,42 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+@Entity(
+    tableName = "expense_shares",
+    primaryKeys = {"expense_id", "roommate_id"},
+    foreignKeys = {
+        @ForeignKey(
+            entity = Expense.class,
+            parentColumns = "id",
+            childColumns = "expense_id",
+            onDelete = ForeignKey.CASCADE
+        ),
+        @ForeignKey(
+            entity = Roommate.class,
+            parentColumns = "id",
+            childColumns = "roommate_id",
+            onDelete = ForeignKey.CASCADE
+        )
+    },
+    indices = {@Index(value = "roommate_id", name = "idx_share_roommate")}
+)
+public class ExpenseShare {
+    @ColumnInfo(name = "expense_id")
+    public long expenseId;
+
+    @ColumnInfo(name = "roommate_id")
+    public long roommateId;
+
+    @ColumnInfo(name = "share_cents")
+    public long shareCents;
+
+    public ExpenseShare(long expenseId, long roommateId, long shareCents) {
+        this.expenseId = expenseId;
+        this.roommateId = roommateId;
+        this.shareCents = shareCents;
+    }
+}
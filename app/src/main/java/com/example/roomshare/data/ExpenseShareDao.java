@@ -0,0 +1,24 @@
+package com.example.roomshare.data;
+
+import android.database.Cursor;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface ExpenseShareDao {
+    @Query("SELECT s.roommate_id AS roommateId, SUM(s.share_cents) AS totalCents "
+            + "FROM expenses e JOIN expense_shares s ON s.expense_id = e.id "
+            + "WHERE e.room_id = :roomId AND e.id > :watermark GROUP BY s.roommate_id")
+    List<RoommateTotal> getOwedTotalsSince(long roomId, long watermark);
+
+    @Query("SELECT s.roommate_id AS roommate_id, s.share_cents AS cents "
+            + "FROM expenses e JOIN expense_shares s ON s.expense_id = e.id WHERE e.room_id = :roomId")
+    Cursor streamOwed(long roomId);
+
+    @Insert
+    void insertShares(List<ExpenseShare> shares);
+}
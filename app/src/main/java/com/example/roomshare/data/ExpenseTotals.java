@@ -0,0 +1,6 @@
+package com.example.roomshare.data;
+
+public class ExpenseTotals {
+    public int expenseCount;
+    public long totalCents;
+}
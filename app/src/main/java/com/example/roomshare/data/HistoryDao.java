@@ -0,0 +1,33 @@
+package com.example.roomshare.data;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface HistoryDao {
+    /**
+     * Up to {@code limit} chores and expenses of a room that come after the position
+     * (date, type, id) in newest-first order. Each branch walks its (room_id, date) index
+     * and SQLite merges the two sorted streams. A null match keeps every row; otherwise
+     * only rows whose history_fts entry matches are kept.
+     */
+    @Query("SELECT 1 AS type, e.id AS id, e.name AS name, e.date AS date, r.name AS person, "
+            + "0 AS completed, e.amount_cents, e.split_count "
+            + "FROM expenses e LEFT JOIN roommates r ON r.id = e.payer_id "
+            + "WHERE e.room_id = :roomId AND e.date <= :date "
+            + "AND (e.date < :date OR (:type = 1 AND e.id < :id)) "
+            + "AND (:match IS NULL OR e.id IN (SELECT rowid / 2 FROM history_fts "
+            + "WHERE history_fts MATCH :match AND rowid % 2 = 1 AND room_id = :roomId)) "
+            + "UNION ALL "
+            + "SELECT 0 AS type, c.id, c.name, c.date, r.name AS person, "
+            + "c.completed, 0 AS amount_cents, 0 AS split_count "
+            + "FROM chores c LEFT JOIN roommates r ON r.id = c.assigned_to_id "
+            + "WHERE c.room_id = :roomId AND c.date <= :date "
+            + "AND (c.date < :date OR :type > 0 OR c.id < :id) "
+            + "AND (:match IS NULL OR c.id IN (SELECT rowid / 2 FROM history_fts "
+            + "WHERE history_fts MATCH :match AND rowid % 2 = 0 AND room_id = :roomId)) "
+            + "ORDER BY date DESC, type DESC, id DESC LIMIT :limit")
+    List<HistoryRow> getHistoryPage(long roomId, String date, int type, long id, String match, int limit);
+}
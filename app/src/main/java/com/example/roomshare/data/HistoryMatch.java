@@ -0,0 +1,6 @@
+package com.example.roomshare.data;
+
+public class HistoryMatch {
+    public long rowid;
+    public double score;
+}
@@ -0,0 +1,28 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * One entry of the combined history feed. {@code type} is {@link HistorySearch#CHORE} or
+ * {@link HistorySearch#EXPENSE}; columns that do not apply to that type are zero, and
+ * {@code person} is the assignee or payer name.
+ */
+public class HistoryRow {
+    public int type;
+
+    public long id;
+
+    public String name;
+
+    public String date;
+
+    public String person;
+
+    public int completed;
+
+    @ColumnInfo(name = "amount_cents")
+    public long amountCents;
+
+    @ColumnInfo(name = "split_count")
+    public int splitCount;
+}
@@ -0,0 +1,79 @@
+package com.example.roomshare.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Query building and ranking for {@code history_fts}. A chore is stored under rowid
+ * {@code id * 2} and an expense under {@code id * 2 + 1}, so one table covers both.
+ */
+public final class HistorySearch {
+    public static final int CHORE = 0;
+    public static final int EXPENSE = 1;
+
+    // Byte k of the 32-bit matchinfo word i, read from the blob's hex text in info.
+    // matchinfo() writes words in native order, which is little-endian on every Android ABI.
+    private static final String HEX = "'0123456789ABCDEF'";
+    private static final String BYTE_0 = "(instr(" + HEX + ", substr(info, 8 * i + 1, 1)) * 16 "
+            + "+ instr(" + HEX + ", substr(info, 8 * i + 2, 1)) - 17)";
+    private static final String BYTE_1 = "(instr(" + HEX + ", substr(info, 8 * i + 3, 1)) * 16 "
+            + "+ instr(" + HEX + ", substr(info, 8 * i + 4, 1)) - 17)";
+    private static final String BYTE_2 = "(instr(" + HEX + ", substr(info, 8 * i + 5, 1)) * 16 "
+            + "+ instr(" + HEX + ", substr(info, 8 * i + 6, 1)) - 17)";
+    private static final String BYTE_3 = "(instr(" + HEX + ", substr(info, 8 * i + 7, 1)) * 16 "
+            + "+ instr(" + HEX + ", substr(info, 8 * i + 8, 1)) - 17)";
+    private static final String WORD = "(" + BYTE_0 + " + " + BYTE_1 + " * 256 + " + BYTE_2 + " * 65536 + "
+            + BYTE_3 + " * 16777216)";
+
+    /**
+     * Matching rows ranked by relevance, best first and newest first among equals. The
+     * {@code matchinfo(history_fts, 'pcx')} blob holds, after the phrase and column counts,
+     * three words per phrase and column: hits in this row, hits in all rows, and rows with
+     * hits. A row scores, for every phrase and column, the share of that phrase's hits across
+     * all rows that fall in this row, weighted 1.0 for name, 0.5 for person and 0 for the
+     * unindexed room_id. Rare terms therefore count for more than common ones.
+     */
+    static final String RANKED_MATCHES = "WITH RECURSIVE "
+            + "hits(rowid, info) AS (SELECT rowid, hex(matchinfo(history_fts, 'pcx')) FROM history_fts "
+            + "WHERE history_fts MATCH :query AND (:roomId IS NULL OR room_id = :roomId)), "
+            + "words(rowid, info, i) AS (SELECT rowid, info, 2 FROM hits "
+            + "UNION ALL SELECT rowid, info, i + 1 FROM words WHERE i + 1 < length(info) / 8), "
+            + "cells(rowid, cell, in_row, in_all) AS (SELECT rowid, (i - 2) / 3, "
+            + "MAX(CASE (i - 2) % 3 WHEN 0 THEN " + WORD + " END), "
+            + "MAX(CASE (i - 2) % 3 WHEN 1 THEN " + WORD + " END) "
+            + "FROM words WHERE (i - 2) % 3 < 2 GROUP BY rowid, (i - 2) / 3) "
+            + "SELECT rowid, SUM(CASE WHEN in_all > 0 THEN "
+            + "(CASE cell % 3 WHEN 0 THEN 1.0 WHEN 1 THEN 0.5 ELSE 0.0 END) * in_row / in_all ELSE 0 END) AS score "
+            + "FROM cells GROUP BY rowid ORDER BY score DESC, rowid DESC LIMIT :limit";
+
+    private HistorySearch() {}
+
+    public static int typeOf(long rowid) {
+        return (int) (rowid & 1);
+    }
+
+    public static long idOf(long rowid) {
+        return rowid >> 1;
+    }
+
+    /**
+     * Turns free text into a MATCH expression in which every word is a prefix term and all
+     * of them must match. Returns null when the text has no words.
+     */
+    public static String matchQuery(String text) {
+        if (text == null) return null;
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                term.append(text.charAt(i));
+            } else if (term.length() > 0) {
+                // Lower case keeps words like "or" and "near" from being read as operators
+                terms.add(term.toString().toLowerCase(Locale.ROOT) + "*");
+                term.setLength(0);
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.roomshare.data;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface HistorySearchDao {
+    /**
+     * The {@code limit} best rows matching the FTS query, in one room or in all rooms when
+     * roomId is null, ranked in SQL as described on {@link HistorySearch#RANKED_MATCHES}.
+     */
+    @Query(HistorySearch.RANKED_MATCHES)
+    List<HistoryMatch> search(String query, Long roomId, int limit);
+}
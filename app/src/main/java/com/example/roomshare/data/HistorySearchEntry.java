@@ -0,0 +1,27 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.PrimaryKey;
+
+/**
+ * Full-text row for one chore or expense: its name and the name of the roommate it is
+ * assigned to or paid by. Maintained by the {@code trg_fts_*} triggers in {@link AppDatabase};
+ * the rowid encodes the source row as described in {@link HistorySearch}.
+ */
+@Fts4(tokenizer = FtsOptions.TOKENIZER_UNICODE61, prefix = {2, 3}, notIndexed = {"room_id"})
+@Entity(tableName = "history_fts")
+public class HistorySearchEntry {
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    public long rowid;
+
+    public String name;
+
+    public String person;
+
+    @ColumnInfo(name = "room_id")
+    public long roomId;
+}
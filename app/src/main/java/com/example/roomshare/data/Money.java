@@ -0,0 +1,73 @@
+package com.example.roomshare.data;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for amounts stored as whole cents in a {@code long}.
+ */
+public final class Money {
+    private Money() {}
+
+    public static long parse(String text) {
+        try {
+            return new BigDecimal(text.trim()).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + (abs / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * Share of {@code total} for participant {@code index} when it is split evenly across
+     * {@code parts} participants. The leftover cents go one each to the lowest indices, so
+     * the shares always add up to exactly {@code total}.
+     */
+    public static long evenShare(long total, int parts, int index) {
+        long base = total / parts;
+        long remainder = total % parts;
+        return index < remainder ? base + 1 : base;
+    }
+
+    /**
+     * Splits {@code total} in proportion to {@code weights} into {@code out} using the
+     * largest-remainder method: everyone gets the floor of their exact share, then the
+     * leftover cents go to the largest fractional remainders, lowest index first on ties.
+     * Does not allocate.
+     */
+    public static void allocate(long total, long[] weights, long[] out) {
+        long weightSum = 0;
+        for (long weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weights must be positive");
+            }
+            weightSum = Math.addExact(weightSum, weight);
+        }
+
+        long handedOut = 0;
+        for (int i = 0; i < weights.length; i++) {
+            out[i] = Math.multiplyExact(total, weights[i]) / weightSum;
+            handedOut += out[i];
+        }
+
+        for (long leftover = total - handedOut; leftover > 0; leftover--) {
+            int best = -1;
+            long bestRemainder = -1;
+            for (int i = 0; i < weights.length; i++) {
+                long exact = total * weights[i];
+                if (out[i] != exact / weightSum) continue;  // already got its extra cent
+                long remainder = exact % weightSum;
+                if (remainder > bestRemainder) {
+                    best = i;
+                    bestRemainder = remainder;
+                }
+            }
+            out[best]++;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.roomshare.data;
+
+/**
+ * Running chore and expense totals for one room's report. Completed chores are counted
+ * per assignee in an int[] indexed by {@link RoommateIndex} slot.
+ */
+public final class ReportAccumulator {
+    private final RoommateIndex index;
+    private final int[] completedBySlot;
+    private int totalChores;
+    private int completedChores;
+    private int expenseCount;
+    private long totalCents;
+
+    public ReportAccumulator(RoommateIndex index) {
+        this.index = index;
+        this.completedBySlot = new int[index.size()];
+    }
+
+    public RoommateIndex index() {
+        return index;
+    }
+
+    public void addChores(boolean assigned, long assignedToId, boolean completed, int count) {
+        totalChores += count;
+        if (!completed) return;
+        completedChores += count;
+        if (assigned) {
+            int slot = index.slotOf(assignedToId);
+            if (slot >= 0) completedBySlot[slot] += count;
+        }
+    }
+
+    public void addExpenses(int count, long cents) {
+        expenseCount += count;
+        totalCents += cents;
+    }
+
+    public int totalChores() {
+        return totalChores;
+    }
+
+    public int completedChores() {
+        return completedChores;
+    }
+
+    public int completedBy(int slot) {
+        return completedBySlot[slot];
+    }
+
+    public int expenseCount() {
+        return expenseCount;
+    }
+
+    public long totalCents() {
+        return totalCents;
+    }
+}
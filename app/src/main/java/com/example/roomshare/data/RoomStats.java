@@ -0,0 +1,42 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * Running chore and expense totals of one room, kept current by the {@code trg_stats_*}
+ * triggers in {@link AppDatabase}. A room without a row has no chores or expenses.
+ */
+@Entity(tableName = "room_stats")
+public class RoomStats {
+    @PrimaryKey
+    @ColumnInfo(name = "room_id")
+    public long roomId;
+
+    @ColumnInfo(name = "chore_count")
+    public long choreCount;
+
+    @ColumnInfo(name = "completed_chores")
+    public long completedChores;
+
+    @ColumnInfo(name = "expense_count")
+    public long expenseCount;
+
+    @ColumnInfo(name = "expense_cents")
+    public long expenseCents;
+
+    public RoomStats(long roomId, long choreCount, long completedChores, long expenseCount, long expenseCents) {
+        this.roomId = roomId;
+        this.choreCount = choreCount;
+        this.completedChores = completedChores;
+        this.expenseCount = expenseCount;
+        this.expenseCents = expenseCents;
+    }
+
+    @Ignore
+    public RoomStats(long roomId) {
+        this(roomId, 0, 0, 0, 0);
+    }
+}
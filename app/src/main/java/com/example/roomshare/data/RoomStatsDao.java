@@ -0,0 +1,31 @@
+package com.example.roomshare.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface RoomStatsDao {
+    @Query("SELECT * FROM room_stats WHERE room_id = :roomId")
+    RoomStats getRoomStats(long roomId);
+
+    @Query("SELECT * FROM assignee_stats WHERE room_id = :roomId")
+    List<AssigneeStats> getAssigneeStats(long roomId);
+
+    @Query("SELECT r.name, COALESCE(a.completed_chores, 0) AS completed "
+            + "FROM roommates r LEFT JOIN assignee_stats a ON a.roommate_id = r.id "
+            + "WHERE r.room_id = :roomId ORDER BY r.name")
+    List<RoommateCompletion> getCompletions(long roomId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertRoomStats(RoomStats stats);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAssigneeStats(List<AssigneeStats> stats);
+
+    @Query("DELETE FROM assignee_stats WHERE room_id = :roomId")
+    void deleteAssigneeStats(long roomId);
+}
@@ -0,0 +1,24 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Change counters for the rows of one room, bumped by the {@code trg_version_*} triggers in
+ * {@link AppDatabase} on every insert, update and delete. A room without a row has not
+ * changed since the counters were introduced. There is deliberately no foreign key to
+ * rooms: the triggers still fire while a room's rows are cascade-deleted.
+ */
+@Entity(tableName = "room_versions")
+public class RoomVersion {
+    @PrimaryKey
+    @ColumnInfo(name = "room_id")
+    public long roomId;
+
+    public long chores;
+
+    public long expenses;
+
+    public long roommates;
+}
@@ -0,0 +1,10 @@
+package com.example.roomshare.data;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+@Dao
+public interface RoomVersionDao {
+    @Query("SELECT * FROM room_versions WHERE room_id = :roomId")
+    RoomVersion getVersion(long roomId);
+}
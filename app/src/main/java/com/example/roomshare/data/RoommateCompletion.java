@@ -0,0 +1,6 @@
+package com.example.roomshare.data;
+
+public class RoommateCompletion {
+    public String name;
+    public long completed;
+}
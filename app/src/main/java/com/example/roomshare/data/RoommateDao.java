@@ -12,15 +12,21 @@ public interface RoommateDao {
     @Query("SELECT * FROM roommates WHERE room_id = :roomId ORDER BY name")
     List<Roommate> getRoommatesByRoom(long roomId);
 
+    @Query("SELECT id FROM roommates WHERE room_id = :roomId ORDER BY id")
+    List<Long> getRoommateIdsByRoom(long roomId);
+
     @Query("SELECT * FROM roommates WHERE id = :id")
     Roommate getRoommateById(long id);
 
-    @Query("SELECT * FROM roommates WHERE name = :name")
-    List<Roommate> getRoommateByName(String name);
+    @Query("SELECT DISTINCT name FROM roommates WHERE name IN (:names) AND room_id != :roomId")
+    List<String> findNamesInOtherRooms(List<String> names, long roomId);
 
     @Insert
     long insertRoommate(Roommate roommate);
 
+    @Insert
+    List<Long> insertRoommates(List<Roommate> roommates);
+
     @Delete
     void deleteRoommate(Roommate roommate);
 }
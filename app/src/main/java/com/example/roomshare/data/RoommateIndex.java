@@ -0,0 +1,38 @@
+package com.example.roomshare.data;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps roommate ids to dense array slots 0..size-1 so per-roommate totals can live in
+ * primitive arrays. Slots follow ascending id order.
+ */
+public final class RoommateIndex {
+    private final long[] ids;
+
+    public RoommateIndex(long[] ids) {
+        this.ids = ids.clone();
+        Arrays.sort(this.ids);
+    }
+
+    public static RoommateIndex of(List<Long> ids) {
+        long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        return new RoommateIndex(array);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long idAt(int slot) {
+        return ids[slot];
+    }
+
+    public int slotOf(long roommateId) {
+        int slot = Arrays.binarySearch(ids, roommateId);
+        return slot >= 0 ? slot : -1;
+    }
+}
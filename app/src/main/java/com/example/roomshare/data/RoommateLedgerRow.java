@@ -0,0 +1,22 @@
+package com.example.roomshare.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Embedded;
+
+/**
+ * A roommate together with their ledger totals, read in one statement so the two
+ * always come from the same snapshot.
+ */
+public class RoommateLedgerRow {
+    @Embedded
+    public Roommate roommate;
+
+    @ColumnInfo(name = "paid_cents")
+    public long paidCents;
+
+    @ColumnInfo(name = "owed_cents")
+    public long owedCents;
+
+    @ColumnInfo(name = "net_cents")
+    public long netCents;
+}
@@ -0,0 +1,6 @@
+package com.example.roomshare.data;
+
+public class RoommateTotal {
+    public long roommateId;
+    public long totalCents;
+}
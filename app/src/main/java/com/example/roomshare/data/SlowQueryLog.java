@@ -0,0 +1,163 @@
+package com.example.roomshare.data;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.RoomDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in log of statements slower than a threshold, installed as Room's query callback
+ * with a direct executor. Only statements issued between {@link #beginWork()} and
+ * {@link #endWork()} on the same thread are timed; Room's own housekeeping on other
+ * threads never gets an end signal and is ignored. A statement is timed from its callback
+ * until the next statement on the thread or the end of the work, so the time includes
+ * stepping its cursor and any Java work done before the next statement: it is an upper
+ * bound. The newest {@link #CAPACITY} slow statements are kept with their bind arguments,
+ * and each distinct SQL gets its {@code EXPLAIN QUERY PLAN} captured once.
+ */
+public final class SlowQueryLog implements RoomDatabase.QueryCallback {
+    public static final String PREFS = "diagnostics";
+    public static final String PREF_ENABLED = "slow_query_log";
+    static final long DEFAULT_THRESHOLD_MILLIS = 16;
+    static final int CAPACITY = 100;
+    static final int MAX_PLANS = 256;
+    private static final String PENDING = "(pending)";
+
+    private final long thresholdNanos;
+    private final Entry[] entries = new Entry[CAPACITY];
+    private long recorded;
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+    private final ThreadLocal<Running> running = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> inWork = new ThreadLocal<>();
+    private final ExecutorService explainer = Executors.newSingleThreadExecutor();
+    private volatile RoomDatabase database;
+
+    public SlowQueryLog(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    public static boolean isEnabled(Context context) {
+        return context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).getBoolean(PREF_ENABLED, false);
+    }
+
+    // Takes effect the next time the database is opened
+    public static void setEnabled(Context context, boolean enabled) {
+        context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit().putBoolean(PREF_ENABLED, enabled).apply();
+    }
+
+    void attach(RoomDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public void onQuery(String sqlQuery, List<?> bindArgs) {
+        long now = System.nanoTime();
+        if (inWork.get() == null || sqlQuery.startsWith("EXPLAIN")) return;
+        endStatement(now);
+        running.set(new Running(sqlQuery, new ArrayList<>(bindArgs), now));
+    }
+
+    /** Starts timing statements on this thread. Call when a unit of work starts. */
+    public void beginWork() {
+        inWork.set(Boolean.TRUE);
+    }
+
+    /** Ends the statement running on this thread, if any, and stops timing until the next unit. */
+    public void endWork() {
+        endStatement(System.nanoTime());
+        inWork.remove();
+    }
+
+    private void endStatement(long now) {
+        Running statement = running.get();
+        if (statement == null) return;
+        running.remove();
+        long duration = now - statement.startedAt;
+        if (duration < thresholdNanos) return;
+        synchronized (entries) {
+            entries[(int) (recorded++ % CAPACITY)] = new Entry(statement.sql, statement.args, duration);
+        }
+        explainOnce(statement.sql, statement.args);
+    }
+
+    private void explainOnce(String sql, List<Object> args) {
+        if (database == null || plans.size() >= MAX_PLANS || plans.putIfAbsent(sql, PENDING) != null) return;
+        explainer.execute(() -> plans.put(sql, explain(sql, args)));
+    }
+
+    private String explain(String sql, List<Object> args) {
+        String verb = sql.trim().split("\\s+", 2)[0].toUpperCase(Locale.US);
+        if (!verb.equals("SELECT") && !verb.equals("WITH") && !verb.equals("INSERT")
+                && !verb.equals("UPDATE") && !verb.equals("DELETE")) {
+            return "(no plan)";
+        }
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = database.query("EXPLAIN QUERY PLAN " + sql, args.toArray())) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                if (plan.length() > 0) plan.append('\n');
+                plan.append(cursor.getString(detail));
+            }
+        } catch (RuntimeException e) {
+            return "(plan unavailable: " + e.getMessage() + ")";
+        }
+        return plan.toString();
+    }
+
+    public String dump() {
+        List<Entry> newestFirst = new ArrayList<>();
+        long total;
+        synchronized (entries) {
+            total = recorded;
+            for (long i = recorded - 1; i >= 0 && i >= recorded - CAPACITY; i--) {
+                newestFirst.add(entries[(int) (i % CAPACITY)]);
+            }
+        }
+        StringBuilder out = new StringBuilder();
+        out.append("slow statements >= ").append(TimeUnit.NANOSECONDS.toMillis(thresholdNanos))
+                .append(" ms: ").append(total).append('\n')
+                .append("times run to the next statement or the end of the work, so they are upper bounds\n");
+        for (Entry entry : newestFirst) {
+            out.append(String.format(Locale.US, "%.2f ms ", entry.durationNanos / 1e6))
+                    .append(entry.sql).append(' ').append(entry.args).append('\n');
+            String plan = plans.get(entry.sql);
+            if (plan != null) {
+                out.append("  ").append(plan.replace("\n", "\n  ")).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static final class Running {
+        final String sql;
+        final List<Object> args;
+        final long startedAt;
+
+        Running(String sql, List<Object> args, long startedAt) {
+            this.sql = sql;
+            this.args = args;
+            this.startedAt = startedAt;
+        }
+    }
+
+    private static final class Entry {
+        final String sql;
+        final List<Object> args;
+        final long durationNanos;
+
+        Entry(String sql, List<Object> args, long durationNanos) {
+            this.sql = sql;
+            this.args = args;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.roomshare.data;
+
+/**
+ * How an expense is divided between its participants. {@link #shares} turns the
+ * per-participant values into cents that always add up to the expense amount.
+ */
+public enum SplitMode {
+    /** Values are ignored; everyone pays the same. See {@link #equalShares}. */
+    EQUAL,
+    /** Values are positive relative weights, e.g. 2 pays twice as much as 1. */
+    WEIGHTED,
+    /** Values are hundredths of a percent and must add up to 10000. */
+    PERCENTAGE,
+    /** Values are the cents each participant pays and must add up to the amount. */
+    EXACT;
+
+    /** Splits the amount evenly between {@code count} participants. */
+    public static long[] equalShares(long amountCents, int count) {
+        requireParticipants(count);
+        long[] shares = new long[count];
+        for (int i = 0; i < count; i++) {
+            shares[i] = Money.evenShare(amountCents, count, i);
+        }
+        return shares;
+    }
+
+    public long[] shares(long amountCents, long[] values) {
+        int count = values.length;
+        requireParticipants(count);
+        long[] shares = new long[count];
+        switch (this) {
+            case EQUAL:
+                return equalShares(amountCents, count);
+            case PERCENTAGE:
+                if (sum(values) != 10000) {
+                    throw new IllegalArgumentException("Percentages must add up to 100%");
+                }
+                Money.allocate(amountCents, values, shares);
+                return shares;
+            case WEIGHTED:
+                Money.allocate(amountCents, values, shares);
+                return shares;
+            case EXACT:
+                if (sum(values) != amountCents) {
+                    throw new IllegalArgumentException("Exact shares must add up to the expense amount");
+                }
+                for (int i = 0; i < count; i++) {
+                    if (values[i] < 0) {
+                        throw new IllegalArgumentException("Shares cannot be negative");
+                    }
+                    shares[i] = values[i];
+                }
+                return shares;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    private static void requireParticipants(int count) {
+        if (count == 0) {
+            throw new IllegalArgumentException("An expense needs at least one participant");
+        }
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.roomshare;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class DbCacheTest {
+    @Test
+    public void countsHitsAndMisses() {
+        DbCache cache = new DbCache(1000);
+        assertNull(cache.get("getRoommates:1"));
+        cache.put("roommates", "getRoommates:1", "alice", 100, cache.generation("roommates"));
+        assertEquals("alice", cache.get("getRoommates:1"));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedOverBudget() {
+        DbCache cache = new DbCache(250);
+        cache.put("bills", "getBills:1", "one", 100, 0);
+        cache.put("bills", "getBills:2", "two", 100, 0);
+        cache.get("getBills:1");
+        cache.put("bills", "getBills:3", "three", 100, 0);
+
+        assertEquals("one", cache.get("getBills:1"));
+        assertNull(cache.get("getBills:2"));
+        assertEquals("three", cache.get("getBills:3"));
+        assertEquals(1, cache.evictions());
+        assertEquals(200, cache.sizeBytes());
+    }
+
+    @Test
+    public void invalidationDropsOnlyThatTable() {
+        DbCache cache = new DbCache(1000);
+        cache.put("rooms", "getAllRooms", "rooms", 100, 0);
+        cache.put("bills", "getBills:1", "bills", 100, 0);
+        cache.invalidate(Collections.singletonList("bills"));
+
+        assertEquals("rooms", cache.get("getAllRooms"));
+        assertNull(cache.get("getBills:1"));
+        assertEquals(100, cache.sizeBytes());
+    }
+
+    @Test
+    public void readStartedBeforeInvalidationIsNotCached() {
+        DbCache cache = new DbCache(1000);
+        long generation = cache.generation("roommates");
+        cache.invalidate(Collections.singletonList("roommates"));
+        cache.put("roommates", "getRoommates:1", "stale", 100, generation);
+        assertNull(cache.get("getRoommates:1"));
+    }
+
+    @Test
+    public void entryLargerThanBudgetIsSkipped() {
+        DbCache cache = new DbCache(100);
+        cache.put("rooms", "getAllRooms", "huge", 101, 0);
+        assertNull(cache.get("getAllRooms"));
+        assertEquals(0, cache.sizeBytes());
+    }
+}
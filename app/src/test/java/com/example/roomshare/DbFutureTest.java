@@ -0,0 +1,73 @@
+package com.example.roomshare;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DbFutureTest {
+    private final DbScheduler scheduler = DbScheduler.split(Runnable::run, 2);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void independentReadsRunConcurrentlyAndJoin() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        DbFuture<Integer> first = DbFuture.of(callback -> scheduler.read(DbPriority.NORMAL, null, () -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return 1;
+        }, callback));
+        DbFuture<Integer> second = DbFuture.of(callback -> scheduler.read(DbPriority.NORMAL, null, () -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return 2;
+        }, callback));
+
+        assertEquals(3, (int) first.thenCombine(second, Integer::sum).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failureSurfacesThroughCause() {
+        DbFuture<Object> future = DbFuture.of(callback -> scheduler.read(DbPriority.NORMAL, null, () -> {
+            throw new IllegalStateException("boom");
+        }, callback));
+        try {
+            future.join();
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(DbFuture.cause(e) instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void cancellingRequestCancelsQueuedRead() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            scheduler.read(DbPriority.NORMAL, null, () -> {
+                blocked.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            }, new DbSchedulerTest.Done<>(new CountDownLatch(1)));
+        }
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger executions = new AtomicInteger();
+        DbFuture<Integer> future = DbFuture.of(callback -> scheduler.read(DbPriority.NORMAL, null, executions::incrementAndGet, callback));
+        DbRequest.of(future).cancel();
+        release.countDown();
+
+        CountDownLatch after = new CountDownLatch(1);
+        scheduler.read(DbPriority.NORMAL, null, () -> null, new DbSchedulerTest.Done<>(after));
+        assertTrue(after.await(5, TimeUnit.SECONDS));
+        assertTrue(future.isCancelled());
+        assertEquals(0, executions.get());
+    }
+}
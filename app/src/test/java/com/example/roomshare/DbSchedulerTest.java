@@ -0,0 +1,169 @@
+package com.example.roomshare;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DbSchedulerTest {
+    private final DbScheduler scheduler = DbScheduler.split(Runnable::run, 2);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void writesRunInSubmissionOrder() throws InterruptedException {
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            scheduler.write("test", () -> order.add(n), new Done<>(done));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void readsRunConcurrently() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            scheduler.read(DbPriority.NORMAL, null, () -> {
+                bothStarted.countDown();
+                return bothStarted.await(10, TimeUnit.SECONDS);
+            }, new Done<>(done));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void slowReadDoesNotBlockWrites() throws InterruptedException {
+        CountDownLatch release = blockReaders();
+        CountDownLatch wrote = new CountDownLatch(1);
+        scheduler.write("test", () -> null, new Done<>(wrote));
+        assertTrue(wrote.await(10, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void identicalQueuedReadsShareOneExecution() throws InterruptedException {
+        CountDownLatch release = blockReaders();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            scheduler.read(DbPriority.INTERACTIVE, "roommates:1", executions::incrementAndGet, new Done<>(done));
+        }
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void cancelledReadIsSkipped() throws InterruptedException {
+        CountDownLatch release = blockReaders();
+        AtomicInteger executions = new AtomicInteger();
+        DbRequest request = scheduler.read(DbPriority.NORMAL, "history:1", executions::incrementAndGet, new Done<>(new CountDownLatch(1)) {
+            @Override
+            public void onSuccess(Integer result) {
+                fail("Cancelled request delivered a result");
+            }
+        });
+        request.cancel();
+        release.countDown();
+
+        CountDownLatch after = new CountDownLatch(1);
+        scheduler.read(DbPriority.NORMAL, null, () -> null, new Done<>(after));
+        assertTrue(after.await(10, TimeUnit.SECONDS));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    public void readsBeyondTheLimitAreRejected() throws InterruptedException {
+        CountDownLatch release = blockReaders();
+        for (int i = 2; i < DbScheduler.MAX_PENDING_READS; i++) {
+            scheduler.read(DbPriority.NORMAL, null, () -> null, new Done<>(new CountDownLatch(1)));
+        }
+        List<Exception> errors = new ArrayList<>();
+        scheduler.read(DbPriority.NORMAL, null, () -> null, new DatabaseHelper.Callback<Object>() {
+            @Override
+            public void onSuccess(Object result) {
+                fail("Read should have been rejected");
+            }
+
+            @Override
+            public void onError(Exception e) {
+                errors.add(e);
+            }
+        });
+        release.countDown();
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof RejectedExecutionException);
+    }
+
+    @Test
+    public void recordsMetricsPerOperation() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(2);
+        scheduler.read(DbPriority.INTERACTIVE, "getRoommates:1", () -> Arrays.asList(1, 2, 3), new Done<>(done));
+        scheduler.write("addBill", () -> {
+            throw new IllegalStateException("constraint");
+        }, new Done<Object>(done) {
+            @Override
+            public void onError(Exception e) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        DbMetrics.Operation reads = scheduler.metrics().get("getRoommates");
+        assertEquals(1, reads.execution().count());
+        assertEquals(3, reads.rows());
+        assertEquals(0, reads.errors());
+        assertEquals(1, scheduler.metrics().get("addBill").errors());
+        assertTrue(scheduler.dumpMetrics().contains("getRoommates n=1 errors=0 rows=3"));
+    }
+
+    // Occupies both read threads until the returned latch is released
+    private CountDownLatch blockReaders() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            scheduler.read(DbPriority.NORMAL, null, () -> {
+                started.countDown();
+                return release.await(10, TimeUnit.SECONDS);
+            }, new Done<>(new CountDownLatch(1)));
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        return release;
+    }
+
+    static class Done<T> implements DatabaseHelper.Callback<T> {
+        private final CountDownLatch latch;
+
+        Done(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            latch.countDown();
+        }
+
+        @Override
+        public void onError(Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.roomshare;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+public class GroupCommitWriterTest {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private int transactions;
+
+    private GroupCommitWriter writer(int maxBatch) {
+        return writer(maxBatch, 1024);
+    }
+
+    private GroupCommitWriter writer(int maxBatch, int capacity) {
+        return new GroupCommitWriter(body -> {
+            transactions++;
+            body.run();
+        }, tasks::add, maxBatch, 0, capacity);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    @Test
+    public void coalescesQueuedWritesIntoBatches() {
+        GroupCommitWriter writer = writer(16);
+        List<Integer> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            writer.submit(() -> n * 10, new Recorder<>(results, null));
+        }
+        runTasks();
+
+        assertEquals(7, writer.commits());
+        assertEquals(100, writer.committedWrites());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i * 10, (int) results.get(i));
+        }
+    }
+
+    @Test
+    public void batchSizeOneCommitsEachWrite() {
+        GroupCommitWriter writer = writer(1);
+        List<Integer> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int n = i;
+            writer.submit(() -> n, new Recorder<>(results, null));
+        }
+        runTasks();
+        assertEquals(5, writer.commits());
+        assertEquals(5, transactions);
+    }
+
+    @Test
+    public void failingWriteOnlyFailsItsOwnCallback() {
+        GroupCommitWriter writer = writer(16);
+        List<Integer> results = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int n = i;
+            writer.submit(() -> {
+                if (n == 2) throw new Exception("bad row");
+                return n;
+            }, new Recorder<>(results, errors));
+        }
+        runTasks();
+
+        assertEquals(List.of(0, 1, 3), results);
+        assertEquals(1, errors.size());
+        assertEquals("bad row", errors.get(0).getMessage());
+        // the aborted batch, then one retry per write
+        assertEquals(5, transactions);
+        assertEquals(3, writer.committedWrites());
+    }
+
+    @Test
+    public void cancelledWriteIsSkipped() {
+        GroupCommitWriter writer = writer(16);
+        List<Integer> results = new ArrayList<>();
+        writer.submit(() -> 1, new Recorder<>(results, null));
+        writer.submit(() -> 2, new Recorder<>(results, null)).cancel();
+        writer.submit(() -> 3, new Recorder<>(results, null));
+        runTasks();
+        assertEquals(List.of(1, 3), results);
+        assertEquals(2, writer.committedWrites());
+    }
+
+    @Test
+    public void fullQueueRejectsNewWrites() {
+        GroupCommitWriter writer = writer(16, 2);
+        List<Integer> results = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int n = i;
+            writer.submit(() -> n, new Recorder<>(results, errors));
+        }
+        assertEquals(1, errors.size());
+        runTasks();
+        assertEquals(List.of(0, 1), results);
+    }
+
+    private static final class Recorder<T> implements DatabaseHelper.Callback<T> {
+        private final List<T> results;
+        private final List<Exception> errors;
+
+        Recorder(List<T> results, List<Exception> errors) {
+            this.results = results;
+            this.errors = errors;
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            if (errors == null) throw new AssertionError(e);
+            errors.add(e);
+        }
+    }
+}
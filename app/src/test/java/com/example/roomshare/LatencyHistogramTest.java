@@ -0,0 +1,39 @@
+package com.example.roomshare;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+    @Test
+    public void bucketsCoverEveryValue() {
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBound(bucket - 1) < value);
+        }
+        assertTrue(LatencyHistogram.upperBound(LatencyHistogram.bucketOf(Long.MAX_VALUE)) >= Long.MAX_VALUE);
+    }
+
+    @Test
+    public void percentilesAreWithinOneBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long ms = 1; ms <= 100; ms++) {
+            histogram.record(ms * 1_000_000);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(100_000_000, histogram.maxNanos());
+        assertEquals(50_500_000, histogram.meanNanos());
+        long p50 = histogram.percentileNanos(0.50);
+        long p99 = histogram.percentileNanos(0.99);
+        assertTrue(p50 >= 50_000_000 && p50 <= 50_000_000 * 1.125);
+        assertTrue(p99 >= 99_000_000 && p99 <= 100_000_000);
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileNanos(0.99));
+        assertEquals(0, histogram.meanNanos());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.roomshare;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PriorityExecutorTest {
+    private PriorityExecutor executor;
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void higherPriorityRunsFirst() throws InterruptedException {
+        executor = new PriorityExecutor("test", 1, 10_000);
+        CountDownLatch release = block();
+        List<DbPriority> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        for (DbPriority priority : new DbPriority[] {DbPriority.BACKGROUND, DbPriority.NORMAL, DbPriority.INTERACTIVE}) {
+            executor.execute(priority, () -> {
+                order.add(priority);
+                done.countDown();
+            });
+        }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(DbPriority.INTERACTIVE, DbPriority.NORMAL, DbPriority.BACKGROUND), order);
+    }
+
+    @Test
+    public void agedBackgroundTaskOvertakesInteractive() throws InterruptedException {
+        executor = new PriorityExecutor("test", 1, 20);
+        CountDownLatch release = block();
+        List<DbPriority> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+        executor.execute(DbPriority.BACKGROUND, () -> {
+            order.add(DbPriority.BACKGROUND);
+            done.countDown();
+        });
+        Thread.sleep(100);
+        executor.execute(DbPriority.INTERACTIVE, () -> {
+            order.add(DbPriority.INTERACTIVE);
+            done.countDown();
+        });
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(DbPriority.BACKGROUND, DbPriority.INTERACTIVE), order);
+    }
+
+    @Test
+    public void recordsQueueWaitPerPriority() throws InterruptedException {
+        executor = new PriorityExecutor("test", 1, 10_000);
+        CountDownLatch release = block();
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(DbPriority.INTERACTIVE, done::countDown);
+        Thread.sleep(50);
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        LatencyHistogram interactive = executor.queueWait(DbPriority.INTERACTIVE);
+        assertEquals(1, interactive.count());
+        assertTrue(interactive.percentileNanos(0.99) >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, executor.queueWait(DbPriority.BACKGROUND).count());
+    }
+
+    // Occupies the only worker until the returned latch is released
+    private CountDownLatch block() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(DbPriority.NORMAL, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.roomshare;
+
+import com.example.roomshare.data.RoomVersion;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ReportCacheTest {
+    private final DatabaseHelper.Report report = new DatabaseHelper.Report(3, 1, 2, 4, 1000, 250,
+            Collections.emptyList());
+
+    @Test
+    public void hitsWhileCountersAreUnchanged() {
+        ReportCache cache = new ReportCache();
+        assertNull(cache.get(1, version(1, 2, 3)));
+        cache.put(1, version(1, 2, 3), report, 5_000_000);
+
+        assertSame(report, cache.get(1, version(1, 2, 3)));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(0.5, cache.hitRate(), 1e-9);
+        assertEquals(1, cache.recomputeCost().count());
+    }
+
+    @Test
+    public void anyChangedCounterMisses() {
+        ReportCache cache = new ReportCache();
+        cache.put(1, version(1, 2, 3), report, 0);
+        assertNull(cache.get(1, version(2, 2, 3)));
+        assertNull(cache.get(1, version(1, 3, 3)));
+        assertNull(cache.get(1, version(1, 2, 4)));
+        assertNull(cache.get(2, version(1, 2, 3)));
+    }
+
+    @Test
+    public void roomWithoutCountersMatchesZeroVersion() {
+        ReportCache cache = new ReportCache();
+        cache.put(1, null, report, 0);
+        assertSame(report, cache.get(1, null));
+        assertSame(report, cache.get(1, version(0, 0, 0)));
+        assertNull(cache.get(1, version(0, 1, 0)));
+    }
+
+    @Test
+    public void removeDropsTheRoom() {
+        ReportCache cache = new ReportCache();
+        cache.put(1, version(1, 1, 1), report, 0);
+        cache.remove(1);
+        assertNull(cache.get(1, version(1, 1, 1)));
+    }
+
+    private static RoomVersion version(long chores, long expenses, long roommates) {
+        RoomVersion version = new RoomVersion();
+        version.chores = chores;
+        version.expenses = expenses;
+        version.roommates = roommates;
+        return version;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.roomshare.data;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class BalanceAccumulatorTest {
+    @Test
+    public void tracksTotalsBySlot() {
+        BalanceAccumulator accumulator = new BalanceAccumulator(new RoommateIndex(new long[] {30, 10, 20}));
+        accumulator.addPaid(10, 1000);
+        accumulator.addOwed(10, 334);
+        accumulator.addOwed(20, 333);
+        accumulator.addOwed(30, 333);
+        accumulator.addPaid(99, 500);  // payer no longer in the room
+
+        assertEquals(10, accumulator.index().idAt(0));
+        assertEquals(-1, accumulator.index().slotOf(99));
+        assertEquals(666, accumulator.net(0));
+        assertEquals(-333, accumulator.net(1));
+        assertEquals(-333, accumulator.net(2));
+    }
+
+    @Test
+    public void accumulatingDoesNotAllocate() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long[] ids = new long[8];
+        for (int i = 0; i < ids.length; i++) ids[i] = 100 + i * 3;
+        RoommateIndex index = new RoommateIndex(ids);
+
+        int expenses = 1_000_000;
+        feed(new BalanceAccumulator(index), expenses);  // warm up so JIT work is not counted
+        BalanceAccumulator accumulator = new BalanceAccumulator(index);
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        feed(accumulator, expenses);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static void feed(BalanceAccumulator accumulator, int expenses) {
+        for (int i = 0; i < expenses; i++) {
+            long amount = 1 + (i % 9973);
+            accumulator.addPaid(100 + (i % 8) * 3, amount);
+            for (int slot = 0; slot < 8; slot++) {
+                accumulator.addOwed(100 + slot * 3, Money.evenShare(amount, 8, slot));
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.roomshare.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistorySearchTest {
+    @Test
+    public void matchQueryTurnsWordsIntoPrefixTerms() {
+        assertEquals("gro* alice*", HistorySearch.matchQuery("Gro Alice"));
+        assertEquals("take* out* trash*", HistorySearch.matchQuery("  take-out \"trash\" "));
+    }
+
+    @Test
+    public void matchQueryNeutralizesOperators() {
+        assertEquals("rent* or* bills*", HistorySearch.matchQuery("rent OR bills"));
+        assertEquals("a* near* b*", HistorySearch.matchQuery("a* NEAR/ b^"));
+    }
+
+    @Test
+    public void matchQueryWithoutWordsIsNull() {
+        assertNull(HistorySearch.matchQuery(null));
+        assertNull(HistorySearch.matchQuery(""));
+        assertNull(HistorySearch.matchQuery(" *\"- "));
+    }
+
+    @Test
+    public void rowidEncodesTypeAndId() {
+        assertEquals(HistorySearch.CHORE, HistorySearch.typeOf(42 * 2));
+        assertEquals(42, HistorySearch.idOf(42 * 2));
+        assertEquals(HistorySearch.EXPENSE, HistorySearch.typeOf(42 * 2 + 1));
+        assertEquals(42, HistorySearch.idOf(42 * 2 + 1));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.roomshare.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoneyTest {
+    @Test
+    public void parsesToCents() {
+        assertEquals(1234, Money.parse("12.34"));
+        assertEquals(1200, Money.parse("12"));
+        assertEquals(1235, Money.parse("12.345"));
+        assertEquals(10, Money.parse(".1"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsGarbage() {
+        Money.parse("12,34");
+    }
+
+    @Test
+    public void formatsCents() {
+        assertEquals("12.34", Money.format(1234));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-3.10", Money.format(-310));
+    }
+
+    @Test
+    public void evenSharesAddUpExactly() {
+        for (long total = 0; total < 1000; total += 7) {
+            for (int parts = 1; parts <= 9; parts++) {
+                long sum = 0;
+                for (int i = 0; i < parts; i++) {
+                    long share = Money.evenShare(total, parts, i);
+                    assertTrue(share - total / parts <= 1);
+                    sum += share;
+                }
+                assertEquals(total, sum);
+            }
+        }
+    }
+
+    @Test
+    public void allocateUsesLargestRemainders() {
+        long[] out = new long[3];
+        Money.allocate(100, new long[] {1, 1, 1}, out);
+        assertArrayEquals(new long[] {34, 33, 33}, out);
+
+        // exact shares 33.3, 16.7, 50.0 -> the 0.7 remainder wins the leftover cent
+        Money.allocate(100, new long[] {2, 1, 3}, out);
+        assertArrayEquals(new long[] {33, 17, 50}, out);
+    }
+
+    @Test
+    public void splitModesAddUpToAmount() {
+        assertArrayEquals(new long[] {334, 333, 333}, SplitMode.EQUAL.shares(1000, new long[3]));
+        assertArrayEquals(new long[] {334, 333, 333}, SplitMode.equalShares(1000, 3));
+        assertArrayEquals(new long[] {250, 750}, SplitMode.PERCENTAGE.shares(1000, new long[] {2500, 7500}));
+        assertArrayEquals(new long[] {200, 800}, SplitMode.EXACT.shares(1000, new long[] {200, 800}));
+        long[] weighted = SplitMode.WEIGHTED.shares(1001, new long[] {1, 2, 4});
+        assertEquals(1001, weighted[0] + weighted[1] + weighted[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPercentagesNotAddingUpToHundred() {
+        SplitMode.PERCENTAGE.shares(1000, new long[] {5000, 4000});
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.roomshare.data;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SettlementPlannerTest {
+    @Test
+    public void settlesSimpleDebts() {
+        long[] ids = {1, 2, 3};
+        long[] nets = {2000, -1000, -1000};
+
+        List<SettlementPlanner.Transfer> transfers = SettlementPlanner.plan(ids, nets);
+
+        assertEquals(2, transfers.size());
+        assertSettled(ids, nets, transfers);
+    }
+
+    @Test
+    public void exactSolverUsesZeroSumSubgroups() {
+        // {1, 2} and {3, 4, 5} settle independently: 1 + 2 = 3 transfers, greedy needs 4
+        long[] ids = {1, 2, 3, 4, 5};
+        long[] nets = {500, -500, 700, -400, -300};
+
+        List<SettlementPlanner.Transfer> exact = SettlementPlanner.plan(ids, nets, true);
+        List<SettlementPlanner.Transfer> greedy = SettlementPlanner.plan(ids, nets, false);
+
+        assertEquals(3, exact.size());
+        assertSettled(ids, nets, exact);
+        assertEquals(4, greedy.size());
+        assertSettled(ids, nets, greedy);
+    }
+
+    @Test
+    public void ignoresSettledMembers() {
+        long[] ids = {1, 2, 3};
+        long[] nets = {0, 0, 0};
+
+        assertTrue(SettlementPlanner.plan(ids, nets).isEmpty());
+        assertTrue(SettlementPlanner.plan(ids, nets, false).isEmpty());
+    }
+
+    @Test
+    public void greedyNeverExceedsMembersMinusOne() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int n = 2 + random.nextInt(40);
+            long[] ids = new long[n];
+            long[] nets = randomNets(random, n);
+            for (int i = 0; i < n; i++) ids[i] = i + 1;
+
+            List<SettlementPlanner.Transfer> transfers = SettlementPlanner.plan(ids, nets);
+
+            assertTrue(transfers.size() <= n - 1);
+            assertSettled(ids, nets, transfers);
+        }
+    }
+
+    private static long[] randomNets(Random random, int n) {
+        long[] nets = new long[n];
+        long total = 0;
+        for (int i = 0; i < n - 1; i++) {
+            nets[i] = random.nextInt(200_001) - 100_000;
+            total += nets[i];
+        }
+        nets[n - 1] = -total;
+        return nets;
+    }
+
+    private static void assertSettled(long[] ids, long[] nets, List<SettlementPlanner.Transfer> transfers) {
+        long[] remaining = nets.clone();
+        for (SettlementPlanner.Transfer transfer : transfers) {
+            assertTrue(transfer.amountCents > 0);
+            remaining[indexOf(ids, transfer.fromId)] += transfer.amountCents;
+            remaining[indexOf(ids, transfer.toId)] -= transfer.amountCents;
+        }
+        for (long left : remaining) {
+            assertEquals(0, left);
+        }
+    }
+
+    private static int indexOf(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) return i;
+        }
+        throw new AssertionError("unknown id " + id);
+    }
+}
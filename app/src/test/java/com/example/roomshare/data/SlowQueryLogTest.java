@@ -0,0 +1,64 @@
+package com.example.roomshare.data;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SlowQueryLogTest {
+    @Test
+    public void recordsStatementsOverThreshold() throws InterruptedException {
+        SlowQueryLog log = new SlowQueryLog(5);
+        log.beginWork();
+        log.onQuery("SELECT * FROM expenses WHERE room_id = ?", Collections.singletonList(7L));
+        Thread.sleep(20);
+        log.onQuery("SELECT * FROM chores WHERE room_id = ?", Collections.singletonList(7L));
+        log.endWork();
+
+        String dump = log.dump();
+        assertTrue(dump.contains("slow statements >= 5 ms: 1"));
+        assertTrue(dump.contains("upper bounds"));
+        assertTrue(dump.contains("SELECT * FROM expenses WHERE room_id = ? [7]"));
+        assertFalse(dump.contains("chores"));
+    }
+
+    @Test
+    public void keepsOnlyTheNewestEntries() {
+        SlowQueryLog log = new SlowQueryLog(0);
+        for (int i = 0; i < SlowQueryLog.CAPACITY + 50; i++) {
+            log.beginWork();
+            log.onQuery("SELECT " + i, Arrays.asList());
+            log.endWork();
+        }
+
+        String dump = log.dump();
+        assertTrue(dump.contains(": " + (SlowQueryLog.CAPACITY + 50) + "\n"));
+        assertTrue(dump.contains("SELECT 149 []"));
+        assertTrue(dump.contains("SELECT 50 []"));
+        assertFalse(dump.contains("SELECT 49 []"));
+    }
+
+    @Test
+    public void endWorkWithoutQueryIsIgnored() {
+        SlowQueryLog log = new SlowQueryLog(0);
+        log.beginWork();
+        log.endWork();
+        assertTrue(log.dump().contains(": 0\n"));
+    }
+
+    @Test
+    public void ignoresStatementsOutsideWork() throws InterruptedException {
+        SlowQueryLog log = new SlowQueryLog(5);
+        log.onQuery("CREATE TRIGGER IF NOT EXISTS t AFTER INSERT ON chores BEGIN SELECT 1; END", Arrays.asList());
+        Thread.sleep(20);
+        log.beginWork();
+        log.onQuery("SELECT 1", Arrays.asList());
+        log.endWork();
+
+        String dump = log.dump();
+        assertTrue(dump.contains(": 0\n"));
+        assertFalse(dump.contains("TRIGGER"));
+    }
+}